@@ -0,0 +1,54 @@
+package org.cuke.inspector;
+
+import org.cuke.inspector.checker.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the checks alone: the corpus is parsed, the glue prepared and the steps matched once
+ * before, see {@link SupplierBenchmark} for those.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckerBenchmark extends CorpusBenchmark {
+
+    @Param({"InvalidTagCombinations", "InvalidStepKeyword", "DuplicateScenarios", "MissingRequiredTag", "ForbiddenFeatureTag",
+            "DuplicateStepDefinitions", "UnusedStepDefinitions", "MissingStepDefinitions", "AmbiguousSteps"})
+    private String checker;
+
+    private CucumberSupplier cucumberSupplier;
+
+    @Setup(Level.Trial)
+    public void prepareSupplier() {
+        cucumberSupplier = corpus().preparedSupplier();
+    }
+
+    @Benchmark
+    public Collection<CukeViolation> inspect() {
+        // checkers keep their violations, so every inspection needs a new one
+        return newChecker().inspect(cucumberSupplier);
+    }
+
+    private CukeChecker newChecker() {
+        return switch (checker) {
+            case "InvalidTagCombinations" -> new InvalidTagCombinationsChecker(Set.of("@tag1", "@tag2"));
+            case "InvalidStepKeyword" -> new InvalidStepKeywordChecker(List.of("But"));
+            case "DuplicateScenarios" -> new DuplicateScenariosChecker();
+            case "MissingRequiredTag" -> new MissingRequiredTagChecker("@\\d{6}");
+            case "ForbiddenFeatureTag" -> new ForbiddenFeatureTagChecker("@forbidden-.*");
+            case "DuplicateStepDefinitions" -> new DuplicateStepDefinitionsChecker();
+            case "UnusedStepDefinitions" -> new UnusedStepDefinitionsChecker();
+            case "MissingStepDefinitions" -> new MissingStepDefinitions();
+            case "AmbiguousSteps" -> new AmbiguousStepsChecker();
+            default -> throw new IllegalArgumentException("Unknown checker " + checker);
+        };
+    }
+}
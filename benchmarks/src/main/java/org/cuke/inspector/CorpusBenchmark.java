@@ -0,0 +1,83 @@
+package org.cuke.inspector;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * The scale of the {@link SyntheticCorpus} of a benchmark. Every parameter can be set when running
+ * the benchmarks, e.g. {@code java -jar target/benchmarks.jar Checker -p files=2000 -p tags=5}.
+ */
+@State(Scope.Benchmark)
+public abstract class CorpusBenchmark {
+
+    @Param({"200"})
+    protected int files;
+
+    @Param({"10"})
+    protected int scenarios;
+
+    @Param({"5"})
+    protected int steps;
+
+    @Param({"2000"})
+    protected int stepDefinitions;
+
+    @Param({"3"})
+    protected int tags;
+
+    private SyntheticCorpus corpus;
+    private Path directory;
+    private List<Path> corpusFiles;
+
+    @Setup(Level.Trial)
+    public void createCorpus() {
+        corpus();
+    }
+
+    /**
+     * JMH does not order the setups of a class hierarchy, so the setups of a benchmark get the
+     * corpus from here.
+     */
+    protected SyntheticCorpus corpus() {
+        if (corpus == null) {
+            corpus = new SyntheticCorpus(files, scenarios, steps, stepDefinitions, tags, tableRows());
+        }
+        return corpus;
+    }
+
+    /**
+     * The rows of the data table of every scenario, none by default. Benchmarks on large files
+     * override it with a parameter of their own.
+     */
+    protected int tableRows() {
+        return 0;
+    }
+
+    /**
+     * The feature files of the corpus, written into a temporary directory on first use, for
+     * benchmarks which read from the file system.
+     */
+    protected List<Path> corpusFiles() throws IOException {
+        if (corpusFiles == null) {
+            directory = Files.createTempDirectory("cuke-inspector-benchmark");
+            corpusFiles = corpus().writeTo(directory);
+        }
+        return corpusFiles;
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteCorpusFiles() throws IOException {
+        if (corpusFiles == null) {
+            return;
+        }
+        for (Path file : corpusFiles) {
+            Files.deleteIfExists(file);
+        }
+        Files.deleteIfExists(directory);
+        corpusFiles = null;
+    }
+}
@@ -0,0 +1,81 @@
+package org.cuke.inspector;
+
+import io.cucumber.core.eventbus.EventBus;
+import io.cucumber.core.feature.FeatureParser;
+import io.cucumber.core.feature.Options;
+import io.cucumber.core.gherkin.Feature;
+import io.cucumber.core.runtime.FeaturePathFeatureSupplier;
+import io.cucumber.core.runtime.TimeServiceEventBus;
+import io.cucumber.gherkin.GherkinParser;
+import io.cucumber.messages.types.Envelope;
+import io.cucumber.messages.types.GherkinDocument;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing a corpus once for both the Gherkin documents and the Cucumber features
+ * against the former approach of parsing every file twice.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeatureParsingBenchmark extends CorpusBenchmark {
+
+    private List<URI> uris;
+
+    @Setup(Level.Trial)
+    public void writeCorpus() throws IOException {
+        uris = corpusFiles().stream().map(Path::toUri).toList();
+    }
+
+    @Benchmark
+    public void singleParse(Blackhole blackhole) {
+        CucumberSupplier supplier = new CucumberSupplier(corpus().featureSources(), null);
+
+        blackhole.consume(supplier.getGherkinDocuments());
+        blackhole.consume(supplier.getFeatures());
+    }
+
+    @Benchmark
+    public void separateParses(Blackhole blackhole) {
+        EventBus eventBus = new TimeServiceEventBus(Clock.systemUTC(), UUID::randomUUID);
+        FeatureParser featureParser = new FeatureParser(eventBus::generateId);
+        Options options = () -> uris;
+        List<Feature> features = new FeaturePathFeatureSupplier(() -> Thread.currentThread().getContextClassLoader(), options, featureParser).get();
+
+        GherkinParser gherkinParser = GherkinParser.builder()
+                .includeGherkinDocument(true)
+                .includeSource(true)
+                .includePickles(true)
+                .build();
+        List<GherkinDocument> gherkinDocuments = corpus().featureSources().stream()
+                .map(source -> parse(gherkinParser, source))
+                .toList();
+
+        blackhole.consume(gherkinDocuments);
+        blackhole.consume(features);
+    }
+
+    private static GherkinDocument parse(GherkinParser parser, FeatureSource source) {
+        try (InputStream inputStream = source.open()) {
+            return parser.parse(source.uri().toString(), inputStream)
+                    .map(Envelope::getGherkinDocument)
+                    .flatMap(Optional::stream)
+                    .findFirst()
+                    .orElseThrow();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
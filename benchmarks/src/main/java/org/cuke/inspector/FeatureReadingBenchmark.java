@@ -0,0 +1,58 @@
+package org.cuke.inspector;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ways of reading large feature files into the parser: copying the whole file into a
+ * byte array first, streaming it from the file and memory mapping it. Every scenario of the corpus
+ * gets a data table; for files of several MB run it with e.g. {@code -p files=4 -p tableRows=50000}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FeatureReadingBenchmark extends CorpusBenchmark {
+
+    @Param({"1000"})
+    private int tableRows;
+
+    private List<Path> paths;
+
+    @Setup(Level.Trial)
+    public void writeCorpus() throws IOException {
+        paths = corpusFiles();
+    }
+
+    @Override
+    protected int tableRows() {
+        return tableRows;
+    }
+
+    @Benchmark
+    public Object readAllBytes() throws IOException {
+        List<FeatureSource> sources = new ArrayList<>();
+        for (Path path : paths) {
+            sources.add(FeatureSource.of(path.toUri(), new ByteArrayInputStream(Files.readAllBytes(path))));
+        }
+        return new CucumberSupplier(sources, null).getParsedFeatures();
+    }
+
+    @Benchmark
+    public Object fileStream() {
+        return new CucumberSupplier(paths.stream().map(FeatureSource::of).toList(), null).getParsedFeatures();
+    }
+
+    @Benchmark
+    public Object memoryMapped() {
+        return new CucumberSupplier(paths.stream().map(FeatureSource::mapped).toList(), null).getParsedFeatures();
+    }
+}
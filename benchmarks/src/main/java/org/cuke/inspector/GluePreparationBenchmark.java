@@ -0,0 +1,30 @@
+package org.cuke.inspector;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares preparing the glue, which is all glue-only checks like duplicate step definitions need,
+ * against preparing it and compiling every step expression, which the glue did eagerly before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GluePreparationBenchmark extends CorpusBenchmark {
+
+    @Benchmark
+    public void prepareGlue(Blackhole blackhole) {
+        blackhole.consume(corpus().preparedGlue());
+    }
+
+    @Benchmark
+    public void prepareGlueAndCompileExpressions(Blackhole blackhole) {
+        CukeCachingGlue glue = corpus().preparedGlue();
+        glue.getCukeStepDefinitions().forEach(stepDefinition -> blackhole.consume(stepDefinition.getExpression()));
+    }
+}
@@ -0,0 +1,51 @@
+package org.cuke.inspector;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what the supplier computes before any check can run: parsing the corpus, sequentially
+ * and in parallel, and matching all step texts against the step definitions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SupplierBenchmark extends CorpusBenchmark {
+
+    @Param({"1", "4"})
+    private int parsingThreads;
+
+    private Set<String> stepTexts;
+    private CukeCachingGlue glue;
+
+    @Setup(Level.Trial)
+    public void prepareSteps() {
+        stepTexts = new LinkedHashSet<>();
+        new CucumberSupplier(corpus().featureSources(), null).getParsedFeatures()
+                .forEach(parsedFeature -> parsedFeature.pickles()
+                        .forEach(pickle -> pickle.getSteps().forEach(step -> stepTexts.add(step.getText()))));
+        glue = corpus().preparedGlue();
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        blackhole.consume(new CucumberSupplier(corpus().featureSources(), null, parsingThreads, true).getParsedFeatures());
+    }
+
+    @Benchmark
+    public void parseAndCreateFeatures(Blackhole blackhole) {
+        blackhole.consume(new CucumberSupplier(corpus().featureSources(), null, parsingThreads, true).getFeatures());
+    }
+
+    @Benchmark
+    public void matchSteps(Blackhole blackhole) {
+        blackhole.consume(new StepMatchTable(stepTexts, glue.getStepDefinitionIndex()));
+    }
+}
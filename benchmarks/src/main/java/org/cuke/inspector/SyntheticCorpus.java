@@ -0,0 +1,172 @@
+package org.cuke.inspector;
+
+import io.cucumber.core.backend.ParameterInfo;
+import io.cucumber.core.backend.StepDefinition;
+import io.cucumber.core.runtime.TimeServiceEventBus;
+import io.cucumber.core.stepexpression.StepTypeRegistry;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.*;
+
+/**
+ * A generated suite of feature files and step definitions for the benchmarks. The same scale always
+ * creates the same suite. Like a real one it has a few of everything the checks look for: duplicate
+ * scenario names, untagged scenarios, forbidden keywords, steps without and with several step
+ * definitions, duplicate and unused step definitions.
+ * <p>
+ * The step definitions do not come from a glue package, so the corpus prepares the glue itself.
+ * Large files get a data table in every scenario.
+ */
+final class SyntheticCorpus {
+    private static final String[] KEYWORDS = {"Given", "When", "Then", "And", "But"};
+    private static final String[] CITIES = {"Vienna", "Graz", "Linz", "Salzburg"};
+
+    private final int stepDefinitionCount;
+    private final Map<URI, byte[]> features = new LinkedHashMap<>();
+    private final List<StepDefinition> stepDefinitions = new ArrayList<>();
+
+    SyntheticCorpus(int files, int scenarios, int steps, int stepDefinitions, int tags, int tableRows) {
+        this.stepDefinitionCount = stepDefinitions;
+        Random random = new Random(42);
+        for (int file = 0; file < files; file++) {
+            URI uri = URI.create("classpath:synthetic/feature_%05d.feature".formatted(file));
+            features.put(uri, feature(file, scenarios, steps, tags, tableRows, random).getBytes(StandardCharsets.UTF_8));
+        }
+        for (int i = 0; i < stepDefinitions; i++) {
+            // every 100th pattern is defined twice
+            int patternIndex = i % 100 == 99 ? i - 1 : i;
+            this.stepDefinitions.add(new SyntheticStepDefinition(pattern(patternIndex), "SyntheticSteps.step" + i + "()"));
+        }
+    }
+
+    private String feature(int file, int scenarios, int steps, int tags, int tableRows, Random random) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(file % 10 == 0 ? "@forbidden-" + file : "@feature-" + file).append('\n');
+        sb.append("Feature: Feature ").append(file).append('\n');
+        for (int scenario = 0; scenario < scenarios; scenario++) {
+            sb.append("\n  ");
+            for (int tag = 0; tag < tags; tag++) {
+                // one in five scenarios misses the user story tag
+                sb.append(tag == 0 && scenario % 5 != 0 ? "@%06d".formatted(random.nextInt(1_000_000)) : "@tag" + tag).append(' ');
+            }
+            // one in fifty scenarios has the name of a scenario of another file
+            String name = scenario % 50 == 49 ? "Scenario 0-" + scenario : "Scenario " + file + "-" + scenario;
+            sb.append("\n  Scenario: ").append(name).append('\n');
+            for (int step = 0; step < steps; step++) {
+                sb.append("    ").append(KEYWORDS[step % KEYWORDS.length]).append(' ').append(stepText(random)).append('\n');
+                if (step == 0 && tableRows > 0) {
+                    appendTable(sb, tableRows);
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    // without random values, so a table does not change the rest of the suite
+    private static void appendTable(StringBuilder sb, int tableRows) {
+        sb.append("      | id | name | street | city | balance |\n");
+        for (int row = 0; row < tableRows; row++) {
+            sb.append("      | ").append(row)
+                    .append(" | Customer ").append(row)
+                    .append(" | Main Street ").append(row % 500)
+                    .append(" | ").append(CITIES[row % CITIES.length])
+                    .append(" | ").append(row * 7 % 10000).append(" |\n");
+        }
+    }
+
+    /**
+     * Uses the first half of the step definitions, so the others are unused, and one in ten steps
+     * has no step definition.
+     */
+    private String stepText(Random random) {
+        int definition = random.nextInt(Math.max(1, stepDefinitionCount / 2));
+        if (random.nextInt(10) == 0) {
+            return "an undefined step " + definition;
+        }
+        return switch (definition % 3) {
+            case 0 -> "the customer " + definition + " has " + random.nextInt(100) + " items in the basket";
+            case 1 -> "the order " + definition + " is shipped to \"" + CITIES[random.nextInt(CITIES.length)] + "\"";
+            default -> "the invoice " + definition + " is paid";
+        };
+    }
+
+    private static String pattern(int definition) {
+        return switch (definition % 3) {
+            case 0 -> "the customer " + definition + " has {int} items in the basket";
+            case 1 -> "^the order " + definition + " is (shipped|delivered) to \"([^\"]*)\"$";
+            default -> "the invoice " + definition + " is paid";
+        };
+    }
+
+    /**
+     * New sources for every call, since an in-memory source can only be read once.
+     */
+    List<FeatureSource> featureSources() {
+        return features.entrySet().stream()
+                .map(entry -> FeatureSource.of(entry.getKey(), new ByteArrayInputStream(entry.getValue())))
+                .toList();
+    }
+
+    /**
+     * Writes every feature into a file of the directory, named like its URI.
+     */
+    List<Path> writeTo(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Map.Entry<URI, byte[]> feature : features.entrySet()) {
+            String path = feature.getKey().getSchemeSpecificPart();
+            files.add(Files.write(directory.resolve(path.substring(path.lastIndexOf('/') + 1)), feature.getValue()));
+        }
+        return files;
+    }
+
+    CukeCachingGlue preparedGlue() {
+        CukeCachingGlue glue = new CukeCachingGlue(new TimeServiceEventBus(Clock.systemUTC(), UUID::randomUUID));
+        stepDefinitions.forEach(glue::addStepDefinition);
+        glue.prepareGlue(new StepTypeRegistry(Locale.ENGLISH));
+        return glue;
+    }
+
+    /**
+     * A supplier with the parsed features, the prepared glue and the matched steps, so checks on it
+     * only measure the check itself.
+     */
+    CucumberSupplier preparedSupplier() {
+        List<ParsedFeature> parsedFeatures = new CucumberSupplier(featureSources(), null).getParsedFeatures();
+        Set<String> stepTexts = new LinkedHashSet<>();
+        parsedFeatures.forEach(parsedFeature -> parsedFeature.pickles()
+                .forEach(pickle -> pickle.getSteps().forEach(step -> stepTexts.add(step.getText()))));
+        return new CucumberSupplier(parsedFeatures, stepTexts, preparedGlue());
+    }
+
+    private record SyntheticStepDefinition(String pattern, String location) implements StepDefinition {
+        @Override
+        public void execute(Object[] args) {
+        }
+
+        @Override
+        public List<ParameterInfo> parameterInfos() {
+            return List.of();
+        }
+
+        @Override
+        public String getPattern() {
+            return pattern;
+        }
+
+        @Override
+        public boolean isDefinedAt(StackTraceElement stackTraceElement) {
+            return false;
+        }
+
+        @Override
+        public String getLocation() {
+            return location;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.cuke.inspector;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Formats the violations of all checks on the corpus, as a failing {@code hasNoViolations()} does,
+ * and writes them as a {@link ViolationWriter} does. Compared with the former formatting through
+ * format strings, which is kept here for the location and message layout most violations use.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ViolationFormatterBenchmark extends CorpusBenchmark {
+
+    private List<CukeViolation> violations;
+
+    @Setup(Level.Trial)
+    public void inspectCorpus() {
+        CukeInspector cukeInspector = new CukeInspector(corpus().preparedSupplier())
+                .findInvalidTagCombinations(Set.of("@tag1", "@tag2"))
+                .findInvalidKeywords(List.of("But"))
+                .findDuplicateScenarioNames()
+                .findScenariosMissingRequiredTags("@\\d{6}")
+                .findFeaturesWithDisallowedTags("@forbidden-.*")
+                .findDuplicateStepDefinitions()
+                .findUnusedStepDefinitions()
+                .findMissingStepDefinitions()
+                .findAmbiguousSteps();
+        violations = new ArrayList<>(cukeInspector.getViolations());
+    }
+
+    @Benchmark
+    public String format() {
+        return ViolationFormatter.format(violations);
+    }
+
+    @Benchmark
+    public void formatToWriter() throws IOException {
+        ViolationFormatter.formatTo(violations, Writer.nullWriter());
+    }
+
+    @Benchmark
+    public String formatWithFormatStrings() {
+        return violations.stream()
+                .map(ViolationFormatterBenchmark::formatWithFormatStrings)
+                .collect(Collectors.joining());
+    }
+
+    private static String formatWithFormatStrings(CukeViolation violation) {
+        FeatureLocation featureLocation = violation.featureLocation();
+        if (featureLocation == null) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("%n%s%n".formatted(violation.message()));
+            violation.featureLocations().forEach(location ->
+                    sb.append("   %s:[%d,%d] %n".formatted(location.fileName(), location.line(), location.column())));
+            return sb.toString();
+        }
+        return "%n%s:[%d,%d] %s%n".formatted(featureLocation.fileName(), featureLocation.line(), featureLocation.column(), violation.message());
+    }
+}
@@ -3,93 +3,442 @@ package org.cuke.inspector;
 import io.cucumber.core.backend.Backend;
 import io.cucumber.core.backend.DefaultObjectFactory;
 import io.cucumber.core.eventbus.EventBus;
-import io.cucumber.core.feature.FeatureParser;
-import io.cucumber.core.feature.Options;
 import io.cucumber.core.gherkin.Feature;
-import io.cucumber.core.runtime.FeaturePathFeatureSupplier;
-import io.cucumber.core.runtime.FeatureSupplier;
+import io.cucumber.core.gherkin.messages.GherkinMessagesFeatureParser;
 import io.cucumber.core.runtime.TimeServiceEventBus;
 import io.cucumber.core.stepexpression.StepTypeRegistry;
-import io.cucumber.gherkin.GherkinParser;
 import io.cucumber.java.JavaBackendProviderService;
 import io.cucumber.messages.types.Envelope;
 import io.cucumber.messages.types.GherkinDocument;
+import io.cucumber.messages.types.Pickle;
+import io.cucumber.messages.types.PickleStep;
 import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
 
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.time.Clock;
 import java.util.*;
-import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static java.util.Collections.singletonList;
 
+/**
+ * Parses the features and loads the glue on first use and keeps them. It can be shared by
+ * concurrent inspections: every artifact is computed at most once and safely published, threads
+ * asking for an artifact which is being computed wait for it. Only {@link #refresh(Collection)}
+ * must not overlap with inspections.
+ */
+@Slf4j
 public class CucumberSupplier {
 
-    private final Set<Entry<String, InputStream>> featureSources;
-    private final List<URI> featureURIs;
+    private volatile List<FeatureSource> featureSources;
     private final URI glueDirectoryUri;
-    private List<Feature> features;
-    private List<GherkinDocument> gherkinDocuments;
-    private CukeCachingGlue glue;
+    private final int parsingThreads;
+    private final boolean retainFeatures;
+    private final ParseCache parseCache;
+    private final GlueCache glueCache;
+    private final Lazy<List<ParsedFeature>> parsedFeatures = new Lazy<>(this::parseAll);
+    private final Lazy<List<Feature>> features = new Lazy<>(this::coreFeatures);
+    private final Lazy<List<GherkinDocument>> gherkinDocuments = new Lazy<>(this::gherkinDocuments);
+    private final Lazy<CukeCachingGlue> glue = new Lazy<>(this::loadGlue);
+    private final Lazy<StepMatchTable> stepMatchTable = new Lazy<>(this::matchSteps);
+    // guarded by this; refresh waits for them, so they never compute from outdated sources
+    private final List<Thread> prefetchThreads = new ArrayList<>();
 
-    public CucumberSupplier(Map<String, InputStream> featureSources, List<URI> featureURIs, URI glueDirectoryUri) {
-        this.featureSources = featureSources.entrySet();
-        this.featureURIs = featureURIs;
+    public CucumberSupplier(Collection<FeatureSource> featureSources, URI glueDirectoryUri) {
+        this(featureSources, glueDirectoryUri, 1, true);
+    }
+
+    /**
+     * @param retainFeatures if {@code false} the parsed features are not kept. Every stream over them
+     *                       parses the sources again, one at a time, so memory does not grow with the
+     *                       number of feature files. Streaming always parses sequentially.
+     */
+    public CucumberSupplier(Collection<FeatureSource> featureSources, URI glueDirectoryUri, int parsingThreads, boolean retainFeatures) {
+        this(featureSources, glueDirectoryUri, parsingThreads, retainFeatures, null);
+    }
+
+    /**
+     * @param cacheDirectory where parsed documents and pickles, keyed by the content hash of each
+     *                       feature file, and the step definitions of the glue are kept between runs.
+     *                       {@code null} disables caching.
+     */
+    public CucumberSupplier(Collection<FeatureSource> featureSources, URI glueDirectoryUri, int parsingThreads, boolean retainFeatures,
+                            Path cacheDirectory) {
+        if (parsingThreads < 1) {
+            throw new IllegalArgumentException("At least one parsing thread is required, got " + parsingThreads);
+        }
+        this.featureSources = List.copyOf(featureSources);
         this.glueDirectoryUri = glueDirectoryUri;
+        this.parsingThreads = parsingThreads;
+        this.retainFeatures = retainFeatures;
+        this.parseCache = cacheDirectory == null ? null : new ParseCache(cacheDirectory);
+        this.glueCache = cacheDirectory == null ? null : new GlueCache(cacheDirectory);
+    }
 
-        features = new ArrayList<>();
-        gherkinDocuments = new ArrayList<>();
+    /**
+     * A supplier of artifacts which were computed elsewhere, e.g. merged from the shards of an
+     * inspection. It has no feature sources, so it cannot be refreshed.
+     */
+    CucumberSupplier(List<ParsedFeature> parsedFeatures, Collection<String> stepTexts, CukeCachingGlue glue) {
+        this(List.of(), null, 1, true, null);
+        this.parsedFeatures.set(List.copyOf(parsedFeatures));
+        this.glue.set(glue);
+        this.stepMatchTable.set(new StepMatchTable(stepTexts, glue.getStepDefinitionIndex()));
     }
 
-    public List<Feature> getFeatures() {
-        if (features.isEmpty()) {
-            EventBus eventBus = new TimeServiceEventBus(Clock.systemUTC(), UUID::randomUUID);
-            final FeatureParser parser = new FeatureParser(eventBus::generateId);
-            Options runtimeOptions = () -> featureURIs;
+    /**
+     * What a checker can ask the supplier for, see {@link #prefetch(Set)}.
+     */
+    public enum Artifact {
+        /**
+         * The parsed features with their Gherkin documents and pickles.
+         */
+        FEATURES,
+        /**
+         * The prepared glue.
+         */
+        GLUE
+    }
+
+    /**
+     * Starts computing the given artifacts in the background, so e.g. the features are parsed while
+     * the glue is loaded and an inspection only waits for the artifact it needs. Features which are
+     * not retained are parsed by every inspection anyway, so they are not parsed ahead.
+     */
+    public synchronized void prefetch(Set<Artifact> artifacts) {
+        prefetchThreads.removeIf(thread -> !thread.isAlive());
+        if (artifacts.contains(Artifact.FEATURES) && retainFeatures && !parsedFeatures.isComputed()) {
+            prefetch("features", parsedFeatures);
+        }
+        if (artifacts.contains(Artifact.GLUE) && glueDirectoryUri != null && !glue.isComputed()) {
+            prefetch("glue", glue);
+        }
+    }
+
+    private void prefetch(String name, Lazy<?> artifact) {
+        prefetchThreads.add(Thread.ofVirtual().name("cuke-inspector-prefetch-" + name).start(() -> {
+            try {
+                artifact.get();
+            } catch (RuntimeException e) {
+                // failures are not kept, the inspection asking for the artifact runs into it again and reports it
+                log.warn("Could not prefetch {}, it is computed again when needed: {}", name, e.getMessage());
+            }
+        }));
+    }
+
+    private void awaitPrefetch() {
+        try {
+            for (Thread thread : prefetchThreads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for prefetched features and glue", e);
+        }
+        prefetchThreads.clear();
+    }
+
+    public Stream<ParsedFeature> parsedFeatureStream() {
+        return streamParsedFeatures();
+    }
+
+    // the lazy artifacts only use private methods, so they never call into a subclass
+    private Stream<ParsedFeature> streamParsedFeatures() {
+        if (retainFeatures) {
+            return parsedFeatures.get().stream();
+        }
+        GherkinMessagesFeatureParser parser = new GherkinMessagesFeatureParser();
+        return featureSources.stream()
+                .map(source -> parse(source, parser))
+                .flatMap(Optional::stream);
+    }
+
+    public Stream<GherkinDocument> gherkinDocumentStream() {
+        return parsedFeatureStream().map(ParsedFeature::gherkinDocument);
+    }
+
+    public Stream<Feature> featureStream() {
+        return parsedFeatureStream().map(ParsedFeature::feature);
+    }
+
+    public List<ParsedFeature> getParsedFeatures() {
+        return parsedFeatures.get();
+    }
+
+    private List<ParsedFeature> parseAll() {
+        GherkinMessagesFeatureParser parser = new GherkinMessagesFeatureParser();
+        List<FeatureSource> sources = featureSources;
+        return parsingThreads == 1 || sources.size() < 2
+                ? parseSequentially(sources, parser)
+                : parseInParallel(sources, parser);
+    }
+
+    private List<ParsedFeature> parseSequentially(List<FeatureSource> sources, GherkinMessagesFeatureParser parser) {
+        return sources.stream()
+                .map(source -> parse(source, parser))
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    /**
+     * Every source is parsed as its own task, but the results are joined in source order.
+     * So the order of the features and the exception thrown for the first broken file are
+     * the same as for sequential parsing. The pool only lives for this parse, so no worker
+     * threads are left behind by a supplier.
+     */
+    private List<ParsedFeature> parseInParallel(List<FeatureSource> sources, GherkinMessagesFeatureParser parser) {
+        try (ExecutorService pool = new ForkJoinPool(parsingThreads)) {
+            List<Future<Optional<ParsedFeature>>> tasks = sources.stream()
+                    .map(source -> pool.submit(() -> parse(source, parser)))
+                    .toList();
+            try {
+                return tasks.stream()
+                        .map(CucumberSupplier::await)
+                        .flatMap(Optional::stream)
+                        .toList();
+            } catch (Throwable e) {
+                // the remaining files of a broken inspection are not needed anymore
+                tasks.forEach(task -> task.cancel(true));
+                throw e;
+            }
+        }
+    }
+
+    @SneakyThrows
+    private static <T> T await(Future<T> task) {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Parses the given files again and replaces their features. Files which do not exist anymore
+     * are dropped, new feature files are inserted in URI order, as the builder sorts them. The glue
+     * is kept. A computed step match table is updated with the step texts of the given files only,
+     * if the features are retained; otherwise the old step texts are not known and all features are
+     * matched again on the next request.
+     *
+     * @return the features parsed from the given files
+     */
+    public synchronized List<ParsedFeature> refresh(Collection<Path> files) {
+        awaitPrefetch();
+        GherkinMessagesFeatureParser parser = new GherkinMessagesFeatureParser();
+        List<FeatureSource> sources = new ArrayList<>(featureSources);
+        Map<String, ParsedFeature> refreshed = new LinkedHashMap<>();
+        Set<String> touched = new HashSet<>();
+        for (Path file : files) {
+            URI uri = file.toUri();
+            touched.add(uri.toString());
+            Optional<FeatureSource> known = sources.stream()
+                    .filter(source -> source.uri().equals(uri))
+                    .findFirst();
+
+            if (!Files.isRegularFile(file)) {
+                known.ifPresent(sources::remove);
+            } else if (known.isPresent() || file.toString().endsWith(".feature")) {
+                FeatureSource source = known.orElseGet(() -> FeatureSource.of(file));
+                if (known.isEmpty()) {
+                    sources.add(insertionIndex(sources, uri), source);
+                }
+                parse(source, parser).ifPresent(parsed -> refreshed.put(uri.toString(), parsed));
+            }
+        }
+
+        featureSources = List.copyOf(sources);
+
+        if (parsedFeatures.isComputed()) {
+            Map<String, ParsedFeature> previous = new HashMap<>();
+            parsedFeatures.get().forEach(parsed -> previous.put(parsed.gherkinDocument().getUri().orElse(null), parsed));
+            parsedFeatures.set(sources.stream()
+                    .map(source -> touched.contains(source.uri().toString())
+                            ? refreshed.get(source.uri().toString())
+                            : previous.get(source.uri().toString()))
+                    .filter(Objects::nonNull)
+                    .toList());
+            if (stepMatchTable.isComputed()) {
+                StepMatchTable table = stepMatchTable.get();
+                touched.stream()
+                        .map(previous::get)
+                        .filter(Objects::nonNull)
+                        .forEach(parsed -> table.remove(stepTextsOf(parsed)));
+                refreshed.values().forEach(parsed -> table.add(stepTextsOf(parsed)));
+                // publishes the changed table to the threads of the next inspection
+                stepMatchTable.set(table);
+            }
+        } else {
+            stepMatchTable.reset();
+        }
+        features.reset();
+        gherkinDocuments.reset();
+        return List.copyOf(refreshed.values());
+    }
 
-            final FeatureSupplier featureSupplier = new FeaturePathFeatureSupplier(() -> Thread.currentThread().getContextClassLoader(), runtimeOptions, parser);
-            features = featureSupplier.get();
+    private static int insertionIndex(List<FeatureSource> sources, URI uri) {
+        for (int i = 0; i < sources.size(); i++) {
+            if (sources.get(i).uri().compareTo(uri) > 0) {
+                return i;
+            }
         }
-        return features;
+        return sources.size();
+    }
+
+    /**
+     * The feature files read from the file system, including files which were deleted since the
+     * last refresh.
+     */
+    List<Path> featureFiles() {
+        return featureSources.stream()
+                .map(FeatureSource::uri)
+                .filter(uri -> "file".equals(uri.getScheme()))
+                .map(Path::of)
+                .toList();
+    }
+
+    public List<Feature> getFeatures() {
+        return features.get();
+    }
+
+    private List<Feature> coreFeatures() {
+        return parsedFeatures.get().stream()
+                .map(ParsedFeature::feature)
+                .toList();
+    }
+
+    boolean hasGlue() {
+        return glueDirectoryUri != null || glue.isComputed();
     }
 
     public CukeCachingGlue getGlue() {
-        if (glue == null) {
-            EventBus bus = new TimeServiceEventBus(Clock.systemUTC(), UUID::randomUUID);
-            glue = new CukeCachingGlue(bus);
+        return glue.get();
+    }
+
+    private CukeCachingGlue loadGlue() {
+        long start = System.nanoTime();
+        EventBus bus = new TimeServiceEventBus(Clock.systemUTC(), UUID::randomUUID);
+        CukeCachingGlue loadedGlue = new CukeCachingGlue(bus);
 
+        boolean cached = glueCache != null && glueCache.load(glueDirectoryUri, loadedGlue);
+        if (!cached) {
             DefaultObjectFactory lookup = new DefaultObjectFactory();
             Backend backend = new JavaBackendProviderService().create(lookup, lookup, () -> Thread.currentThread().getContextClassLoader());
-            backend.loadGlue(glue, singletonList(glueDirectoryUri));
+            backend.loadGlue(loadedGlue, singletonList(glueDirectoryUri));
+        }
 
-            glue.prepareGlue(new StepTypeRegistry(Locale.getDefault()));
+        loadedGlue.prepareGlue(new StepTypeRegistry(Locale.getDefault()));
+        if (glueCache != null && !cached) {
+            glueCache.store(glueDirectoryUri, loadedGlue);
         }
-        return glue;
+        log.debug("Prepared {} step definitions of {} in {} ms{}", loadedGlue.getStepDefinitions().size(), glueDirectoryUri,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), cached ? " from the glue index" : "");
+        return loadedGlue;
+    }
+
+    /**
+     * Matches the step texts of all pickles against the step definitions of the glue, once.
+     */
+    public StepMatchTable getStepMatchTable() {
+        return stepMatchTable.get();
+    }
+
+    private StepMatchTable matchSteps() {
+        StepMatchTable table = new StepMatchTable(List.of(), glue.get().getStepDefinitionIndex());
+        try (Stream<ParsedFeature> parsedFeatureStream = streamParsedFeatures()) {
+            parsedFeatureStream.forEach(parsedFeature -> table.add(stepTextsOf(parsedFeature)));
+        }
+        return table;
+    }
+
+    private static Set<String> stepTextsOf(ParsedFeature parsedFeature) {
+        return parsedFeature.pickles().stream()
+                .flatMap(pickle -> pickle.getSteps().stream())
+                .map(PickleStep::getText)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
-    @SneakyThrows
     public List<GherkinDocument> getGherkinDocuments() {
-        if (gherkinDocuments.isEmpty()) {
-            GherkinParser parser = GherkinParser.builder()
-                    .includeGherkinDocument(true)
-                    .includeSource(true)
-                    .includePickles(true)
-                    .build();
-
-            gherkinDocuments = featureSources.stream()
-                    .map(entry -> getGherkinDocuments(entry, parser))
-                    .toList();
+        return gherkinDocuments.get();
+    }
+
+    private List<GherkinDocument> gherkinDocuments() {
+        return parsedFeatures.get().stream()
+                .map(ParsedFeature::gherkinDocument)
+                .toList();
+    }
+
+    /**
+     * Parses the source once. The Cucumber core feature keeps the envelopes of its parse,
+     * so the Gherkin document and the pickles are taken from there instead of parsing again.
+     * Files without a feature (e.g. empty files) are skipped, as Cucumber does.
+     */
+    @SneakyThrows
+    private Optional<ParsedFeature> parse(FeatureSource source, GherkinMessagesFeatureParser parser) {
+        if (parseCache == null) {
+            return parseFeature(source, parser).map(CucumberSupplier::toParsedFeature);
         }
-        return gherkinDocuments;
+
+        // only files with an entry are hashed up front; a hit reads them once, a changed file twice
+        if (parseCache.hasEntry(source.uri())) {
+            Optional<ParsedFeatureCodec.Decoded> cached = parseCache.load(source.uri(), ParseCache.hash(source.open()));
+            if (cached.isPresent()) {
+                return Optional.of(new ParsedFeature(cached.get().gherkinDocument(), cached.get().pickles(),
+                        () -> parseFeature(source, parser).orElseThrow()));
+            }
+        }
+
+        // the parser reads the whole file, so the bytes it consumes give the content hash of the entry
+        MessageDigest digest = ParseCache.newDigest();
+        Optional<ParsedFeature> parsedFeature = parseFeature(source, parser, digest).map(CucumberSupplier::toParsedFeature);
+        byte[] contentHash = digest.digest();
+        parsedFeature.ifPresent(parsed -> parseCache.store(source.uri(), contentHash, parsed.gherkinDocument(), parsed.pickles()));
+        return parsedFeature;
     }
 
+    private static Optional<Feature> parseFeature(FeatureSource source, GherkinMessagesFeatureParser parser) {
+        return parseFeature(source, parser, null);
+    }
+
+    /**
+     * @param digest if not {@code null}, every byte the parser reads is added to it
+     */
     @SneakyThrows
-    private static GherkinDocument getGherkinDocuments(Entry<String, InputStream> entry, GherkinParser parser) {
-        return parser.parse(entry.getKey(), entry.getValue())
+    private static Optional<Feature> parseFeature(FeatureSource source, GherkinMessagesFeatureParser parser, MessageDigest digest) {
+        try (InputStream inputStream = digest == null ? source.open() : new DigestInputStream(source.open(), digest)) {
+            return parser.parse(source.uri(), inputStream, UUID::randomUUID);
+        }
+    }
+
+    private static ParsedFeature toParsedFeature(Feature feature) {
+        List<Envelope> envelopes = StreamSupport.stream(feature.getParseEvents().spliterator(), false)
+                .map(Envelope.class::cast)
+                .toList();
+
+        GherkinDocument gherkinDocument = envelopes.stream()
                 .map(Envelope::getGherkinDocument)
-                .filter(Optional::isPresent)
-                .map(Optional::get).findFirst().orElseThrow(() -> new RuntimeException("No gherkin document"));
+                .flatMap(Optional::stream)
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("No gherkin document in " + feature.getUri()));
+
+        List<Pickle> pickles = envelopes.stream()
+                .map(Envelope::getPickle)
+                .flatMap(Optional::stream)
+                .toList();
+
+        return new ParsedFeature(gherkinDocument, pickles, feature);
     }
 
 }
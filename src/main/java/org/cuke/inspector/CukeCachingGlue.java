@@ -2,7 +2,6 @@ package org.cuke.inspector;
 
 import io.cucumber.core.backend.*;
 import io.cucumber.core.eventbus.EventBus;
-import io.cucumber.core.stepexpression.StepExpression;
 import io.cucumber.core.stepexpression.StepExpressionFactory;
 import io.cucumber.core.stepexpression.StepTypeRegistry;
 import lombok.Getter;
@@ -16,6 +15,9 @@ public final class CukeCachingGlue implements Glue {
     private final Map<String, List<CukeInspectorStepDefinition>> stepDefinitionsByPattern = new TreeMap<>();
     @Getter
     private final List<ParameterTypeDefinition> parameterTypes = new ArrayList<>();
+    @Getter
+    private StepDefinitionIndex stepDefinitionIndex;
+    private final StepDefinitionAnnotations stepDefinitionAnnotations = new StepDefinitionAnnotations();
     private final EventBus bus;
 
     CukeCachingGlue(EventBus bus) {
@@ -81,14 +83,16 @@ public final class CukeCachingGlue implements Glue {
     public void prepareGlue(StepTypeRegistry stepTypeRegistry) {
         parameterTypes.forEach(parameterType -> stepTypeRegistry.defineParameterType(parameterType.parameterType()));
 
+        // expressions are compiled on first match; the source of an expression is its pattern
         StepExpressionFactory stepExpressionFactory = new StepExpressionFactory(stepTypeRegistry, this.bus);
         this.stepDefinitions.forEach(stepDefinition -> {
-            StepExpression expression = stepExpressionFactory.createExpression(stepDefinition);
-            CukeInspectorStepDefinition inspectorStepDefinition = new CukeInspectorStepDefinition(stepDefinition, expression);
+            CukeInspectorStepDefinition inspectorStepDefinition = new CukeInspectorStepDefinition(stepDefinition,
+                    () -> stepExpressionFactory.createExpression(stepDefinition), stepDefinitionAnnotations);
 
             stepDefinitionsByPattern
-                    .computeIfAbsent(inspectorStepDefinition.getExpression().getSource(), key -> new ArrayList<>())
+                    .computeIfAbsent(stepDefinition.getPattern(), key -> new ArrayList<>())
                     .add(inspectorStepDefinition);
         });
+        stepDefinitionIndex = new StepDefinitionIndex(stepDefinitionsByPattern);
     }
 }
\ No newline at end of file
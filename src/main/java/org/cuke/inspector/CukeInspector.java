@@ -1,28 +1,52 @@
 package org.cuke.inspector;
 
+import io.cucumber.messages.types.GherkinDocument;
 import org.cuke.inspector.checker.*;
 import org.opentest4j.AssertionFailedError;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public final class CukeInspector {
+    private static final int MAX_FORMATTED_VIOLATIONS = 1000;
 
     private final List<CukeViolation> violations;
+    private final List<CukeChecker> pendingCheckers;
+    private final List<CukeChecker> checkers;
+    private final Map<CukeChecker, Collection<CukeViolation>> violationsOfGlobalCheckers;
     private final CucumberSupplier cucumberSupplier;
+    private final boolean concurrentCheckers;
 
     public CukeInspector(CucumberSupplier cucumberSupplier) {
+        this(cucumberSupplier, false);
+    }
+
+    CukeInspector(CucumberSupplier cucumberSupplier, boolean concurrentCheckers) {
         violations = new ArrayList<>();
+        pendingCheckers = new ArrayList<>();
+        checkers = new ArrayList<>();
+        violationsOfGlobalCheckers = new IdentityHashMap<>();
         this.cucumberSupplier = cucumberSupplier;
+        this.concurrentCheckers = concurrentCheckers;
     }
 
     public static CukeInspectorBuilder withFeatureFile(Path source) throws IOException {
         Objects.requireNonNull(source);
-        return withFeatureFile(source.toUri().toString(), new ByteArrayInputStream(Files.readAllBytes(source)));
+        if (!Files.isRegularFile(source)) {
+            throw new NoSuchFileException(source.toString());
+        }
+        return new CukeInspectorBuilder().withFeatureFile(source);
     }
 
     public static CukeInspectorBuilder withFeatureFile(String featureSource, InputStream inputStream) {
@@ -41,53 +65,329 @@ public final class CukeInspector {
         return new CukeInspectorBuilder().withJavaPackage(packageName);
     }
 
+    /**
+     * Merges shards written by {@link #writeShard(Path)}, e.g. on the CI nodes of several modules,
+     * without parsing any feature file or loading any glue. Only the global checks can run on the
+     * merged shards, so they get an inspector of their own.
+     */
+    public static ShardInspector fromShards(Collection<Path> shardFiles) throws IOException {
+        Objects.requireNonNull(shardFiles);
+        return InspectionShard.merge(shardFiles);
+    }
+
     public CukeInspector findInvalidTagCombinations(Set<String> invalidTagCombination) {
-        violations.addAll(new InvalidTagCombinationsChecker(invalidTagCombination).inspect(cucumberSupplier));
+        pendingCheckers.add(new InvalidTagCombinationsChecker(invalidTagCombination));
         return this;
     }
 
     public CukeInspector findInvalidKeywords(List<String> forbiddenStepKeywords) {
-        violations.addAll(new InvalidStepKeywordChecker(forbiddenStepKeywords).inspect(cucumberSupplier));
+        pendingCheckers.add(new InvalidStepKeywordChecker(forbiddenStepKeywords));
         return this;
     }
 
     public CukeInspector findDuplicateScenarioNames() {
-        violations.addAll(new DuplicateScenariosChecker().inspect(cucumberSupplier));
+        pendingCheckers.add(new DuplicateScenariosChecker());
         return this;
     }
 
     public CukeInspector findScenariosMissingRequiredTags(String requiredRegex) {
-        violations.addAll(new MissingRequiredTagChecker(requiredRegex).inspect(cucumberSupplier));
+        pendingCheckers.add(new MissingRequiredTagChecker(requiredRegex));
         return this;
     }
 
     public CukeInspector findFeaturesWithDisallowedTags(String forbiddenRegex) {
-        violations.addAll(new ForbiddenFeatureTagChecker(forbiddenRegex).inspect(cucumberSupplier));
+        pendingCheckers.add(new ForbiddenFeatureTagChecker(forbiddenRegex));
         return this;
     }
 
     public CukeInspector findDuplicateStepDefinitions() {
-        violations.addAll(new DuplicateStepDefinitionsChecker().inspect(cucumberSupplier));
+        pendingCheckers.add(new DuplicateStepDefinitionsChecker());
         return this;
     }
 
     public CukeInspector findUnusedStepDefinitions() {
-        violations.addAll(new UnusedStepDefinitionsChecker().inspect(cucumberSupplier));
+        pendingCheckers.add(new UnusedStepDefinitionsChecker());
         return this;
     }
 
     public CukeInspector findMissingStepDefinitions() {
-        violations.addAll(new MissingStepDefinitions().inspect(cucumberSupplier));
+        pendingCheckers.add(new MissingStepDefinitions());
+        return this;
+    }
+
+    public CukeInspector findAmbiguousSteps() {
+        pendingCheckers.add(new AmbiguousStepsChecker());
         return this;
     }
 
     public List<CukeViolation> getViolations() {
+        runPendingCheckers();
         return Collections.unmodifiableList(violations);
     }
 
+    /**
+     * Fails with the formatted violations. Only the first violations are formatted, so the message
+     * stays readable and fits into memory also for very many violations; use
+     * {@link #streamViolations(ViolationSink)} with a {@link ViolationWriter} to get all of them.
+     */
     public void hasNoViolations() {
+        runPendingCheckers();
+        assertNoViolations(violations);
+    }
+
+    static void assertNoViolations(List<CukeViolation> violations) {
         if (!violations.isEmpty()) {
-            throw new AssertionFailedError(ViolationFormatter.format(violations));
+            String message = ViolationFormatter.format(violations.subList(0, Math.min(violations.size(), MAX_FORMATTED_VIOLATIONS)));
+            if (violations.size() > MAX_FORMATTED_VIOLATIONS) {
+                message += "%n... and %d more violations%n".formatted(violations.size() - MAX_FORMATTED_VIOLATIONS);
+            }
+            throw new AssertionFailedError(message);
+        }
+    }
+
+    /**
+     * Runs the checks requested since the last inspection and pushes their violations into the sink
+     * as soon as they are found, instead of collecting them. The documents are walked one at a time,
+     * so with {@link CukeInspectorBuilder#withStreamingParsing()} the memory does not grow with the
+     * number of violations or features; only duplicate scenarios are known after the last document.
+     * The violations come in the order they are found, and the checks are not kept for
+     * {@link #getViolations()} or {@link #inspectChanged(Set)}. With concurrent checkers the walk and
+     * every other checker push from their own thread, one violation at a time.
+     *
+     * @return {@code false} if the sink stopped the inspection before all checks finished
+     */
+    public boolean streamViolations(ViolationSink sink) {
+        Objects.requireNonNull(sink);
+        List<CukeChecker> checkersToRun = List.copyOf(pendingCheckers);
+        pendingCheckers.clear();
+        prefetchArtifactsOf(checkersToRun);
+
+        if (concurrentCheckers) {
+            return streamConcurrently(checkersToRun, sink);
+        }
+        List<GherkinDocumentChecker> documentCheckers = documentCheckersOf(checkersToRun);
+        if (!documentCheckers.isEmpty() && !walkDocuments(documentCheckers, sink)) {
+            return false;
+        }
+        for (CukeChecker checker : checkersToRun) {
+            boolean completed = checker instanceof GherkinDocumentChecker documentChecker
+                    ? acceptAll(documentChecker.getViolations(), sink)
+                    : checker.inspect(cucumberSupplier, sink);
+            if (!completed) {
+                return false;
+            }
         }
+        return true;
+    }
+
+    private boolean streamConcurrently(List<CukeChecker> checkersToRun, ViolationSink sink) {
+        Object lock = new Object();
+        AtomicBoolean stopped = new AtomicBoolean();
+        ViolationSink serializedSink = violation -> {
+            synchronized (lock) {
+                if (stopped.get() || !sink.accept(violation)) {
+                    stopped.set(true);
+                    return false;
+                }
+                return true;
+            }
+        };
+
+        List<Runnable> tasks = new ArrayList<>();
+        List<GherkinDocumentChecker> documentCheckers = documentCheckersOf(checkersToRun);
+        if (!documentCheckers.isEmpty()) {
+            tasks.add(() -> {
+                if (walkDocuments(documentCheckers, serializedSink)) {
+                    documentCheckers.forEach(checker -> acceptAll(checker.getViolations(), serializedSink));
+                }
+            });
+        }
+        for (CukeChecker checker : checkersToRun) {
+            if (!(checker instanceof GherkinDocumentChecker)) {
+                tasks.add(() -> checker.inspect(cucumberSupplier, serializedSink));
+            }
+        }
+        runConcurrently(tasks);
+        return !stopped.get();
+    }
+
+    private boolean walkDocuments(List<GherkinDocumentChecker> documentCheckers, ViolationSink sink) {
+        try (Stream<GherkinDocument> gherkinDocuments = cucumberSupplier.gherkinDocumentStream()) {
+            Iterator<GherkinDocument> iterator = gherkinDocuments.iterator();
+            while (iterator.hasNext()) {
+                GherkinDocument gherkinDocument = iterator.next();
+                GherkinDocumentWalker.walk(gherkinDocument, documentCheckers);
+                String uri = gherkinDocument.getUri().orElse(null);
+                for (GherkinDocumentChecker checker : documentCheckers) {
+                    if (!acceptAll(checker.takeViolations(uri), sink)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean acceptAll(Collection<CukeViolation> violations, ViolationSink sink) {
+        for (CukeViolation violation : violations) {
+            if (!sink.accept(violation)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes what the global checks need to know about the features and glue of this inspector,
+     * so they can run on all shards of a suite together, see {@link #fromShards(Collection)}.
+     */
+    public CukeInspector writeShard(Path shardFile) throws IOException {
+        Objects.requireNonNull(shardFile);
+        InspectionShard.write(cucumberSupplier, shardFile);
+        return this;
+    }
+
+    /**
+     * Checks the given files again after they were changed, added or deleted, without parsing or
+     * walking the other feature files. Checkers which only need single documents and the missing
+     * step definitions check keep their results per file, and the duplicate scenario index is
+     * updated by the changed files. The step match table is updated with the step texts of the
+     * changed files only, so no step of an unchanged file is matched again; the unused, ambiguous
+     * and duplicate step definition checks still run again over all step definitions and distinct
+     * step texts of the table, since a changed step may affect any step definition. With
+     * {@link CukeInspectorBuilder#withStreamingParsing()} the old step texts are not known, so the
+     * steps of all feature files are parsed and matched again.
+     */
+    public CukeInspector inspectChanged(Set<Path> changedFiles) {
+        Objects.requireNonNull(changedFiles);
+        runPendingCheckers();
+
+        List<ParsedFeature> changedFeatures = cucumberSupplier.refresh(changedFiles);
+        Set<String> changedUris = changedFiles.stream()
+                .map(file -> file.toUri().toString())
+                .collect(Collectors.toSet());
+        Set<String> parsedUris = changedFeatures.stream()
+                .map(parsedFeature -> parsedFeature.gherkinDocument().getUri().orElse(null))
+                .collect(Collectors.toSet());
+
+        List<GherkinDocumentChecker> documentCheckers = documentCheckersOf(checkers);
+        changedUris.stream()
+                .filter(uri -> !parsedUris.contains(uri))
+                .forEach(uri -> documentCheckers.forEach(checker -> checker.forgetGherkinDocument(uri)));
+
+        runCheckers(checkers, () -> changedFeatures.stream().map(ParsedFeature::gherkinDocument),
+                checker -> checker.inspectChanged(cucumberSupplier, changedFeatures, changedUris));
+        collectViolations();
+        return this;
+    }
+
+    /**
+     * Watches the feature files below the directory and checks every changed file again, until the
+     * returned watcher is closed. Do not use this inspector anywhere else while it is watched.
+     */
+    public FeatureWatcher watch(Path directory, Consumer<List<CukeViolation>> listener) throws IOException {
+        Objects.requireNonNull(directory);
+        Objects.requireNonNull(listener);
+        return new FeatureWatcher(this, directory, listener);
+    }
+
+    List<Path> featureFiles() {
+        return cucumberSupplier.featureFiles();
+    }
+
+    /**
+     * The checkers run when the violations are requested. All checkers which only need the
+     * Gherkin documents share a single walk over them; the violations keep the order in which
+     * the checks were requested.
+     */
+    private void runPendingCheckers() {
+        if (pendingCheckers.isEmpty()) {
+            return;
+        }
+
+        prefetchArtifactsOf(pendingCheckers);
+        runCheckers(pendingCheckers, cucumberSupplier::gherkinDocumentStream, checker -> checker.inspect(cucumberSupplier));
+        checkers.addAll(pendingCheckers);
+        pendingCheckers.clear();
+        collectViolations();
+    }
+
+    /**
+     * Walks the documents with the document checkers and runs the inspection of every other checker.
+     * With concurrent checkers the walk and each other checker run on their own virtual thread, so
+     * e.g. the glue is loaded while the documents are walked.
+     */
+    private void runCheckers(List<CukeChecker> checkersToRun, Supplier<Stream<GherkinDocument>> gherkinDocuments,
+                             Function<CukeChecker, Collection<CukeViolation>> inspection) {
+        List<Runnable> tasks = new ArrayList<>();
+        List<GherkinDocumentChecker> documentCheckers = documentCheckersOf(checkersToRun);
+        if (!documentCheckers.isEmpty()) {
+            tasks.add(() -> GherkinDocumentWalker.walk(gherkinDocuments.get(), documentCheckers));
+        }
+        Map<CukeChecker, Collection<CukeViolation>> globalViolations = Collections.synchronizedMap(new IdentityHashMap<>());
+        for (CukeChecker checker : checkersToRun) {
+            if (!(checker instanceof GherkinDocumentChecker)) {
+                tasks.add(() -> globalViolations.put(checker, inspection.apply(checker)));
+            }
+        }
+
+        if (concurrentCheckers && tasks.size() > 1) {
+            runConcurrently(tasks);
+        } else {
+            tasks.forEach(Runnable::run);
+        }
+        // the order of the violations comes from the checkers, not from the order the tasks finished
+        violationsOfGlobalCheckers.putAll(globalViolations);
+    }
+
+    private static void runConcurrently(List<Runnable> tasks) {
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            tasks.forEach(task -> futures.add(executor.submit(task)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while inspecting", e);
+            }
+        }
+    }
+
+    /**
+     * Only prepares what the checkers need, e.g. the features are not parsed for checks on the glue.
+     */
+    private void prefetchArtifactsOf(List<CukeChecker> checkersToPrepare) {
+        Set<CucumberSupplier.Artifact> artifacts = EnumSet.noneOf(CucumberSupplier.Artifact.class);
+        checkersToPrepare.forEach(checker -> artifacts.addAll(checker.requiredArtifacts()));
+        // a single artifact has nothing to overlap with
+        if (artifacts.size() > 1) {
+            cucumberSupplier.prefetch(artifacts);
+        }
+    }
+
+    private void collectViolations() {
+        violations.clear();
+        for (CukeChecker checker : checkers) {
+            violations.addAll(checker instanceof GherkinDocumentChecker documentChecker
+                    ? documentChecker.getViolations()
+                    : violationsOfGlobalCheckers.get(checker));
+        }
+    }
+
+    private static List<GherkinDocumentChecker> documentCheckersOf(List<CukeChecker> checkers) {
+        return checkers.stream()
+                .filter(GherkinDocumentChecker.class::isInstance)
+                .map(GherkinDocumentChecker.class::cast)
+                .toList();
     }
 }
@@ -2,37 +2,48 @@ package org.cuke.inspector;
 
 import lombok.SneakyThrows;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
 import java.util.stream.Stream;
 
 public class CukeInspectorBuilder {
-    private final Map<String, InputStream> featureSources;
-    private final List<URI> featureURIs;
+    private final Map<URI, FeatureSource> featureSources;
     private URI glueDirectoryUri;
+    private int parsingThreads;
+    private boolean retainFeatures;
+    private boolean memoryMappedFiles;
+    private Path cacheDirectory;
+    private boolean concurrentCheckers;
 
     CukeInspectorBuilder() {
-        featureSources = new HashMap<>();
-        featureURIs = new ArrayList<>();
+        featureSources = new TreeMap<>();
         glueDirectoryUri = null;
+        parsingThreads = 1;
+        retainFeatures = true;
+        memoryMappedFiles = false;
+        cacheDirectory = null;
+        concurrentCheckers = false;
     }
 
-    @SneakyThrows
-    private void addSource(String uriAsString, InputStream inputStream) {
-        featureURIs.add(new URI(uriAsString));
-        featureSources.put(uriAsString, inputStream);
+    private void addSource(FeatureSource featureSource) {
+        featureSources.put(featureSource.uri(), featureSource);
     }
 
+    @SneakyThrows
     public CukeInspectorBuilder withFeatureFile(String featureSource, InputStream inputStream) {
-        addSource(featureSource, inputStream);
+        addSource(FeatureSource.of(new URI(featureSource), inputStream));
+        return this;
+    }
+
+    public CukeInspectorBuilder withFeatureFile(Path file) {
+        addSource(FeatureSource.of(file));
         return this;
     }
 
@@ -47,20 +58,78 @@ public class CukeInspectorBuilder {
         files.filter(file -> !Files.isDirectory(file))
                 .filter(Files::isRegularFile)
                 .filter(file -> file.toString().endsWith(".feature"))
+                .map(FeatureSource::of)
                 .forEach(this::addSource);
     }
 
-    @SneakyThrows
-    private void addSource(Path file) {
-        addSource(file.toUri().toString(), new ByteArrayInputStream(Files.readAllBytes(file)));
-    }
-
     public CukeInspectorBuilder withJavaPackage(String packageName) {
         glueDirectoryUri = URI.create("classpath:" + packageName);
         return this;
     }
 
+    public CukeInspectorBuilder withParallelParsing() {
+        return withParallelParsing(Runtime.getRuntime().availableProcessors());
+    }
+
+    public CukeInspectorBuilder withParallelParsing(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one parsing thread is required, got " + threads);
+        }
+        parsingThreads = threads;
+        return this;
+    }
+
+    /**
+     * Parses the features again for every inspection instead of keeping them in memory.
+     * Use it for very large suites, where memory matters more than parsing time.
+     */
+    public CukeInspectorBuilder withStreamingParsing() {
+        retainFeatures = false;
+        return this;
+    }
+
+    /**
+     * Reads feature files from the file system through memory mappings instead of file streams.
+     * The parser still copies every file onto the heap, see {@link FeatureSource#mapped(Path)}.
+     */
+    public CukeInspectorBuilder withMemoryMappedFiles() {
+        memoryMappedFiles = true;
+        return this;
+    }
+
+    /**
+     * Keeps the parsed feature files and an index of the step definitions in the given directory, so
+     * later runs neither parse unchanged files again nor scan an unchanged glue package. Entries
+     * written by another Gherkin or Cucumber version are ignored.
+     */
+    public CukeInspectorBuilder withCacheDirectory(Path directory) {
+        cacheDirectory = Objects.requireNonNull(directory);
+        return this;
+    }
+
+    /**
+     * Runs the checks concurrently: the checks on the Gherkin documents share one walk, every check
+     * on the glue runs on its own. The violations are reported in the same order as without it;
+     * streamed violations come in the order they are found.
+     */
+    public CukeInspectorBuilder withConcurrentCheckers() {
+        concurrentCheckers = true;
+        return this;
+    }
+
+    /**
+     * Creates the inspector. Nothing is parsed or loaded before the violations are requested.
+     */
     public CukeInspector should() {
-        return new CukeInspector(new CucumberSupplier(featureSources, featureURIs, glueDirectoryUri));
+        return new CukeInspector(new CucumberSupplier(getFeatureSources(), glueDirectoryUri, parsingThreads, retainFeatures,
+                cacheDirectory), concurrentCheckers);
+    }
+
+    private List<FeatureSource> getFeatureSources() {
+        return featureSources.values().stream()
+                .map(source -> memoryMappedFiles && source instanceof FeatureSource.PathFeatureSource pathSource
+                        ? FeatureSource.mapped(pathSource.path())
+                        : source)
+                .toList();
     }
 }
@@ -2,27 +2,61 @@ package org.cuke.inspector;
 
 import io.cucumber.core.backend.*;
 import io.cucumber.core.stepexpression.StepExpression;
-import io.cucumber.java.StepDefinitionAnnotation;
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.SneakyThrows;
-import lombok.extern.slf4j.Slf4j;
 
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Method;
 import java.util.*;
+import java.util.function.Supplier;
 
-@Slf4j
 @Getter
 public class CukeInspectorStepDefinition implements StepDefinition {
 
     private static final String INVALID_ANNOTATION = "Invalid Cucumber annotation";
+    private static final String CUCUMBER_EXPRESSION_SPECIAL_CHARACTERS = "{}()/\\";
+    private static final String REGULAR_EXPRESSION_SPECIAL_CHARACTERS = "\\.[]{}()*+?^$|";
+    private static final String REGULAR_EXPRESSION_OPTIONAL_QUANTIFIERS = "*?{";
 
     private final StepDefinition stepDefinition;
-    private final StepExpression expression;
+    @Getter(AccessLevel.NONE)
+    private final Supplier<StepExpression> expressionFactory;
+    /**
+     * Compiled on first use: checks which only need the pattern never pay for compiling it.
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile StepExpression expression;
+    @Getter(AccessLevel.NONE)
+    private volatile String cucumberAnnotation;
+    @Getter(AccessLevel.NONE)
+    private final StepDefinitionAnnotations stepDefinitionAnnotations;
+    /**
+     * The pattern has neither parameters nor optional or alternative text, so only the pattern itself matches.
+     */
+    private final boolean literal;
+    /**
+     * The text every step matching this definition starts with.
+     */
+    private final String literalPrefix;
 
     public CukeInspectorStepDefinition(StepDefinition stepDefinition, StepExpression expression) {
+        this(stepDefinition, () -> expression);
+    }
+
+    public CukeInspectorStepDefinition(StepDefinition stepDefinition, Supplier<StepExpression> expressionFactory) {
+        this(stepDefinition, expressionFactory, new StepDefinitionAnnotations());
+    }
+
+    /**
+     * @param stepDefinitionAnnotations the annotations of the glue, shared by all its step definitions
+     */
+    CukeInspectorStepDefinition(StepDefinition stepDefinition, Supplier<StepExpression> expressionFactory,
+                                StepDefinitionAnnotations stepDefinitionAnnotations) {
         this.stepDefinition = stepDefinition;
-        this.expression = expression;
+        this.expressionFactory = expressionFactory;
+        this.stepDefinitionAnnotations = stepDefinitionAnnotations;
+
+        String pattern = stepDefinition.getPattern();
+        this.literal = pattern != null && isLiteral(pattern);
+        this.literalPrefix = pattern == null ? "" : literalPrefix(pattern);
     }
 
     @Override
@@ -55,65 +89,95 @@ public class CukeInspectorStepDefinition implements StepDefinition {
         return stepDefinition.getSourceReference();
     }
 
+    public StepExpression getExpression() {
+        StepExpression compiled = expression;
+        if (compiled == null) {
+            synchronized (this) {
+                compiled = expression;
+                if (compiled == null) {
+                    compiled = expressionFactory.get();
+                    expression = compiled;
+                }
+            }
+        }
+        return compiled;
+    }
+
     public String getRegEx() {
         // can't access expression.expression!
-        return expression.getSource();
+        return getExpression().getSource();
     }
 
-    public boolean isNotUsedInAnyFeature(Set<String> stepsUsedInFeatureFiles) {
-        // matches directly - no parameters
-        if (stepsUsedInFeatureFiles.contains(getExpression().getSource()))
-            return false;
-
-        // does not match including parameters
-        return stepsUsedInFeatureFiles.stream()
-                .map(step -> getExpression().match(step))
-                .filter(Objects::nonNull)
-                .findAny()
-                .isEmpty();
+    public boolean matches(String stepText) {
+        return getExpression().match(stepText) != null;
     }
 
-    @SneakyThrows
     public String getCucumberAnnotation() {
+        String annotation = cucumberAnnotation;
+        if (annotation == null) {
+            // a race only looks up the same name twice
+            annotation = lookupCucumberAnnotation();
+            cucumberAnnotation = annotation;
+        }
+        return annotation;
+    }
+
+    private String lookupCucumberAnnotation() {
+        if (stepDefinition instanceof IndexedStepDefinition indexedStepDefinition) {
+            return indexedStepDefinition.cucumberAnnotation();
+        }
+
         Optional<SourceReference> sourceReference = getSourceReference();
-        if (sourceReference.isEmpty()) {
+        if (sourceReference.isEmpty() || !(sourceReference.get() instanceof JavaMethodReference javaMethodReference)) {
             return INVALID_ANNOTATION;
         }
 
-        JavaMethodReference javaMethodReference = (JavaMethodReference) sourceReference.get();
-
-        return Arrays.stream(Class.forName(javaMethodReference.className()).getDeclaredMethods())
-                .filter(m -> m.getName().equals(javaMethodReference.methodName()))
-                .map(this::getStepDefinitionAnnotation)
-                .findFirst()
+        return stepDefinitionAnnotations.of(javaMethodReference)
+                .map(annotationsByPattern -> annotationsByPattern.getOrDefault(getPattern(), ""))
                 .orElse(INVALID_ANNOTATION);
     }
 
-    private String getStepDefinitionAnnotation(Method method) {
-        for (Annotation annotation : method.getDeclaredAnnotations()) {
-            if (isStepDefinitionAnnotation(annotation) && matchesExpression(annotation)) {
-                return annotation.annotationType().getSimpleName();
-            }
-        }
-        return "";
+    // same rules as io.cucumber.cucumberexpressions.ExpressionFactory
+    private static boolean isRegularExpression(String pattern) {
+        return pattern.startsWith("^") || pattern.endsWith("$")
+                || (pattern.length() > 1 && pattern.startsWith("/") && pattern.endsWith("/"));
+    }
+
+    private static boolean isLiteral(String pattern) {
+        return !isRegularExpression(pattern) && indexOfAny(pattern, 0, CUCUMBER_EXPRESSION_SPECIAL_CHARACTERS) < 0;
     }
 
-    private boolean matchesExpression(Annotation annotation) {
-        for (Method annotationMethod : annotation.annotationType().getDeclaredMethods()) {
-            try {
-                Object value = annotationMethod.invoke(annotation);
-                if (expression.getSource().equals(value.toString()))
-                    return true;
-            } catch (Exception e) {
-                log.error("Fehler beim Lesen des Werts: " + e.getMessage());
+    private static String literalPrefix(String pattern) {
+        if (!isRegularExpression(pattern)) {
+            int special = indexOfAny(pattern, 0, CUCUMBER_EXPRESSION_SPECIAL_CHARACTERS);
+            if (special < 0) {
+                return pattern;
             }
+            // an alternative starts at the beginning of its word: "a cat/dog"
+            return pattern.charAt(special) == '/'
+                    ? pattern.substring(0, pattern.lastIndexOf(' ', special) + 1)
+                    : pattern.substring(0, special);
         }
-        return false;
+
+        // top level alternatives or a missing start anchor allow any start
+        if (!pattern.startsWith("^") || pattern.indexOf('|') >= 0) {
+            return "";
+        }
+        int special = indexOfAny(pattern, 1, REGULAR_EXPRESSION_SPECIAL_CHARACTERS);
+        if (special < 0) {
+            return pattern.substring(1);
+        }
+        // a quantifier can make the preceding character optional: "^cats?"
+        int end = REGULAR_EXPRESSION_OPTIONAL_QUANTIFIERS.indexOf(pattern.charAt(special)) >= 0 ? special - 1 : special;
+        return pattern.substring(1, Math.max(1, end));
     }
 
-    // copied from MethodScanner
-    private static boolean isStepDefinitionAnnotation(Annotation annotation) {
-        Class<? extends Annotation> annotationClass = annotation.annotationType();
-        return annotationClass.getAnnotation(StepDefinitionAnnotation.class) != null;
+    private static int indexOfAny(String text, int from, String characters) {
+        for (int i = from; i < text.length(); i++) {
+            if (characters.indexOf(text.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
     }
 }
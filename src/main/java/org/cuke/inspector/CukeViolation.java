@@ -1,17 +1,65 @@
 package org.cuke.inspector;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 public interface CukeViolation {
+
+    /**
+     * How bad a violation is, e.g. for the level of a SARIF result.
+     */
+    enum Severity {
+        ERROR, WARNING, NOTE
+    }
+
     String message();
 
     FeatureLocation featureLocation();
 
+    /**
+     * All locations of the violation, empty for violations of the glue without a feature location.
+     */
     default List<FeatureLocation> featureLocations() {
-        return List.of(featureLocation());
+        FeatureLocation featureLocation = featureLocation();
+        return featureLocation == null ? List.of() : List.of(featureLocation);
+    }
+
+    /**
+     * The step definitions the violation is about, empty for violations of the features only.
+     */
+    default List<CukeInspectorStepDefinition> stepDefinitions() {
+        return List.of();
+    }
+
+    /**
+     * What every violation of this kind is about, in one sentence, e.g. for the rules of a SARIF log.
+     */
+    default String ruleDescription() {
+        return Json.ruleIdOf(this);
+    }
+
+    default Severity severity() {
+        return Severity.ERROR;
     }
 
     default String format() {
-        return ViolationFormatter.format(this);
+        StringBuilder sb = new StringBuilder(128);
+        try {
+            formatTo(sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException("A StringBuilder does not throw", e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes the violation for a report: the location and the message on one line, or, without a
+     * single location, the message followed by a line per location and step definition. Violations
+     * with a layout of their own override this instead of {@link #format()}, so the layout is also
+     * used when writing into a file.
+     */
+    default void formatTo(Appendable out) throws IOException {
+        ViolationFormatter.appendViolation(this, out);
     }
 }
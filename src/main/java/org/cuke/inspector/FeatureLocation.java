@@ -1,23 +1,91 @@
 package org.cuke.inspector;
 
+import java.util.Objects;
 import java.util.Optional;
 
-public record FeatureLocation(String fileName,
-                              String tokenName,
-                              Long line,
-                              Long column) {
+/**
+ * A position in a feature file. It is kept small, since a large suite has many of them in its
+ * violations and indexes: the file name is the URI of the Gherkin document, which all its locations
+ * share, and line and column are plain ints. File names are not interned. The token name is taken
+ * when the location is created, not resolved lazily: it is the name string of the Gherkin document,
+ * not a copy, but it keeps that name alive as long as the location.
+ * <p>
+ * Lines and columns which are not known are {@link #UNKNOWN}; {@link #line()} and {@link #column()}
+ * return {@code null} for them.
+ */
+public final class FeatureLocation {
+    public static final int UNKNOWN = -1;
+
+    private final String fileName;
+    private final String tokenName;
+    private final int line;
+    private final int column;
+
+    public FeatureLocation(String fileName, String tokenName, Long line, Long column) {
+        this.fileName = fileName;
+        this.tokenName = tokenName;
+        this.line = line == null ? UNKNOWN : Math.toIntExact(line);
+        this.column = column == null ? UNKNOWN : Math.toIntExact(column);
+    }
 
     public FeatureLocation(Optional<String> uri, String name, Long line, Optional<Long> column) {
         this(uri.orElseGet(() -> "unknown uri"), name, line, column.orElseGet(() -> 0L));
     }
 
+    public String fileName() {
+        return fileName;
+    }
+
+    public String tokenName() {
+        return tokenName;
+    }
+
+    public Long line() {
+        return line == UNKNOWN ? null : Long.valueOf(line);
+    }
+
+    public Long column() {
+        return column == UNKNOWN ? null : Long.valueOf(column);
+    }
+
+    /**
+     * The line without boxing it, {@link #UNKNOWN} if not known.
+     */
+    public int lineNumber() {
+        return line;
+    }
+
+    /**
+     * The column without boxing it, {@link #UNKNOWN} if not known.
+     */
+    public int columnNumber() {
+        return column;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof FeatureLocation other
+                && line == other.line
+                && column == other.column
+                && Objects.equals(fileName, other.fileName)
+                && Objects.equals(tokenName, other.tokenName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fileName, tokenName, line, column);
+    }
+
     @Override
     public String toString() {
         return "FeatureLocation{" +
                 "fileName='" + fileName + '\'' +
                 ", tokenName='" + tokenName + '\'' +
-                ", line=" + line +
-                ", column=" + column +
+                ", line=" + line() +
+                ", column=" + column() +
                 '}';
     }
 }
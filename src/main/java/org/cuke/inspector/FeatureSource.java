@@ -0,0 +1,91 @@
+package org.cuke.inspector;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * A handle to the content of one feature file. The content is only read when the source is opened,
+ * so holding a source does not keep the file in memory.
+ */
+public interface FeatureSource {
+
+    URI uri();
+
+    InputStream open() throws IOException;
+
+    static FeatureSource of(Path file) {
+        Objects.requireNonNull(file);
+        return new PathFeatureSource(file.toUri(), file);
+    }
+
+    /**
+     * Reads the file through a memory mapping instead of a file stream. This is not zero-copy: the
+     * Gherkin parser reads every stream completely into a byte array before it decodes it, so the
+     * file still ends up on the heap once per parse.
+     */
+    static FeatureSource mapped(Path file) {
+        Objects.requireNonNull(file);
+        return new MappedFeatureSource(file.toUri(), file);
+    }
+
+    static FeatureSource of(URI uri, InputStream inputStream) {
+        Objects.requireNonNull(uri);
+        Objects.requireNonNull(inputStream);
+        return new InMemoryFeatureSource(uri, inputStream);
+    }
+
+    record PathFeatureSource(URI uri, Path path) implements FeatureSource {
+        @Override
+        public InputStream open() throws IOException {
+            return Files.newInputStream(path);
+        }
+    }
+
+    record MappedFeatureSource(URI uri, Path path) implements FeatureSource {
+        @Override
+        public InputStream open() throws IOException {
+            // the mapping stays valid after the channel is closed
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return new ByteBufferInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+    }
+
+    /**
+     * A stream can only be read once, so its content is kept after the first read to allow
+     * parsing it again.
+     */
+    final class InMemoryFeatureSource implements FeatureSource {
+        private final URI uri;
+        private InputStream inputStream;
+        private byte[] content;
+
+        private InMemoryFeatureSource(URI uri, InputStream inputStream) {
+            this.uri = uri;
+            this.inputStream = inputStream;
+        }
+
+        @Override
+        public URI uri() {
+            return uri;
+        }
+
+        @Override
+        public synchronized InputStream open() throws IOException {
+            if (content == null) {
+                try (InputStream stream = inputStream) {
+                    content = stream.readAllBytes();
+                }
+                inputStream = null;
+            }
+            return new ByteArrayInputStream(content);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package org.cuke.inspector;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Keeps an inspector warm and checks feature files again as soon as they change. The glue is loaded
+ * once and the parsed features are kept; every change only parses and walks the changed files, see
+ * {@link CukeInspector#inspectChanged(Set)}.
+ * <p>
+ * The listener gets all current violations, first after the initial inspection and then after every
+ * batch of changes. It is called on the watcher thread, which is the only thread using the inspector
+ * until the watcher is closed.
+ */
+@Slf4j
+public final class FeatureWatcher implements Closeable {
+    private static final long SETTLE_MILLIS = 50;
+
+    private final CukeInspector cukeInspector;
+    private final Path directory;
+    private final Consumer<List<CukeViolation>> listener;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    FeatureWatcher(CukeInspector cukeInspector, Path directory, Consumer<List<CukeViolation>> listener) throws IOException {
+        this.cukeInspector = cukeInspector;
+        this.directory = directory.toAbsolutePath();
+        this.listener = listener;
+        this.watchService = directory.getFileSystem().newWatchService();
+        registerAll(directory);
+        this.thread = Thread.ofPlatform()
+                .daemon()
+                .name("cuke-inspector-watcher")
+                .start(this::run);
+    }
+
+    private void run() {
+        try {
+            inspect(cukeInspector::getViolations);
+            while (true) {
+                Set<Path> changedFiles = takeChanges();
+                if (!changedFiles.isEmpty()) {
+                    inspect(() -> cukeInspector.inspectChanged(changedFiles).getViolations());
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            log.debug("Stopped watching feature files");
+        }
+    }
+
+    private void inspect(Supplier<List<CukeViolation>> inspection) {
+        try {
+            listener.accept(inspection.get());
+        } catch (RuntimeException e) {
+            // e.g. a file which is saved in several steps; the next change checks it again
+            log.warn("Could not inspect feature files", e);
+        }
+    }
+
+    /**
+     * Waits for a change, then collects everything changed until the file system settles, so an
+     * editor saving a file in several steps causes one inspection.
+     */
+    private Set<Path> takeChanges() throws InterruptedException {
+        Set<Path> changedFiles = new LinkedHashSet<>();
+        WatchKey key = watchService.take();
+        while (key != null) {
+            Path directory = (Path) key.watchable();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                collectEvent(directory, event, changedFiles);
+            }
+            key.reset();
+            key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return changedFiles;
+    }
+
+    void collectEvent(Path watchedDirectory, WatchEvent<?> event, Set<Path> changedFiles) {
+        if (event.kind() == OVERFLOW) {
+            log.warn("Missed changes in {}, checking all feature files below {} again", watchedDirectory, directory);
+            collectAllFeatureFiles(changedFiles);
+            return;
+        }
+        collectChange(event.kind(), watchedDirectory.resolve((Path) event.context()), changedFiles);
+    }
+
+    /**
+     * After missed events any file may have been changed, added or deleted, so the existing feature
+     * files and the known ones, which may be gone, all count as changed.
+     */
+    private void collectAllFeatureFiles(Set<Path> changedFiles) {
+        try {
+            // directories created meanwhile are not registered yet
+            registerAll(directory);
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.filter(FeatureWatcher::isFeatureFile).forEach(changedFiles::add);
+            }
+        } catch (IOException e) {
+            log.warn("Could not list the feature files below {}", directory, e);
+        }
+        cukeInspector.featureFiles().stream()
+                .filter(file -> file.startsWith(directory))
+                .forEach(changedFiles::add);
+    }
+
+    private void collectChange(WatchEvent.Kind<?> kind, Path path, Set<Path> changedFiles) {
+        if (Files.isDirectory(path)) {
+            if (kind != ENTRY_CREATE) {
+                return;
+            }
+            // files can be created before the new directory is registered, so they count as changed
+            try {
+                registerAll(path);
+                try (Stream<Path> files = Files.walk(path)) {
+                    files.filter(FeatureWatcher::isFeatureFile).forEach(changedFiles::add);
+                }
+            } catch (IOException e) {
+                log.warn("Could not watch new directory {}", path, e);
+            }
+        } else if (isFeatureFile(path)) {
+            changedFiles.add(path);
+        }
+    }
+
+    private static boolean isFeatureFile(Path path) {
+        return path.toString().endsWith(".feature") && !Files.isDirectory(path);
+    }
+
+    private void registerAll(Path directory) throws IOException {
+        try (Stream<Path> directories = Files.walk(directory)) {
+            for (Path subdirectory : directories.filter(Files::isDirectory).toList()) {
+                subdirectory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+            }
+        }
+    }
+
+    /**
+     * Stops watching and waits until a running inspection is finished.
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package org.cuke.inspector;
+
+import io.cucumber.core.backend.JavaMethodReference;
+import io.cucumber.core.backend.ParameterTypeDefinition;
+import io.cucumber.core.backend.SourceReference;
+import io.cucumber.cucumberexpressions.ParameterType;
+import io.cucumber.java.JavaBackendProviderService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.net.JarURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the step definitions and parameter types of a glue package on disk, so later runs do not
+ * have to scan the package and reflect on every class. An index is only used while the class files
+ * of the package have the same names, sizes and modification times, and while the same Cucumber
+ * version is used. Glue outside of directories and jar files is never cached.
+ */
+@Slf4j
+final class GlueCache {
+    private static final int MAGIC = 0x43554b47;
+    private static final int FORMAT_VERSION = 1;
+    private static final String CUCUMBER_VERSION = Optional.ofNullable(JavaBackendProviderService.class.getPackage().getImplementationVersion())
+            .orElse("unknown");
+
+    private final Path directory;
+
+    GlueCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Adds the cached step definitions and parameter types to the glue.
+     *
+     * @return {@code false} if there is no valid index and the glue has to be loaded by the backend
+     */
+    boolean load(URI glueUri, CukeCachingGlue glue) {
+        Optional<byte[]> fingerprint = fingerprint(glueUri);
+        if (fingerprint.isEmpty()) {
+            return false;
+        }
+
+        Path entry = entryFor(glueUri);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+            if (in.readInt() != MAGIC
+                    || in.readInt() != FORMAT_VERSION
+                    || !CUCUMBER_VERSION.equals(in.readUTF())
+                    || !glueUri.toString().equals(in.readUTF())
+                    || !Arrays.equals(fingerprint.get(), in.readNBytes(in.readUnsignedByte()))) {
+                return false;
+            }
+
+            Index index = readIndex(in);
+            index.parameterTypes().forEach(glue::addParameterType);
+            index.stepDefinitions().forEach(glue::addStepDefinition);
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable glue index {} for {}", entry, glueUri, e);
+            return false;
+        }
+    }
+
+    /**
+     * Stores the prepared glue. Step definitions which do not come from Java methods cannot be
+     * restored, so such glue is not stored at all.
+     */
+    void store(URI glueUri, CukeCachingGlue glue) {
+        Optional<byte[]> fingerprint = fingerprint(glueUri);
+        Optional<Index> index = indexOf(glue);
+        if (fingerprint.isEmpty() || index.isEmpty()) {
+            return;
+        }
+
+        Path entry = entryFor(glueUri);
+        Path temporary = null;
+        try {
+            Files.createDirectories(directory);
+            temporary = Files.createTempFile(directory, entry.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(CUCUMBER_VERSION);
+                out.writeUTF(glueUri.toString());
+                out.writeByte(fingerprint.get().length);
+                out.write(fingerprint.get());
+                writeIndex(out, index.get());
+            }
+            Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write glue index {} for {}", entry, glueUri, e);
+            deleteQuietly(temporary);
+        }
+    }
+
+    /**
+     * The parameter types and step definitions of prepared glue, as far as the inspections need them.
+     */
+    record Index(List<ParameterTypeDefinition> parameterTypes, List<IndexedStepDefinition> stepDefinitions) {
+    }
+
+    /**
+     * @return empty if a step definition does not come from a Java method and so cannot be restored
+     */
+    static Optional<Index> indexOf(CukeCachingGlue glue) {
+        List<IndexedStepDefinition> stepDefinitions = new ArrayList<>();
+        for (CukeInspectorStepDefinition stepDefinition : glue.getCukeStepDefinitions()) {
+            if (stepDefinition.getStepDefinition() instanceof IndexedStepDefinition indexed) {
+                stepDefinitions.add(indexed);
+                continue;
+            }
+            Optional<SourceReference> sourceReference = stepDefinition.getSourceReference();
+            if (sourceReference.isEmpty() || !(sourceReference.get() instanceof JavaMethodReference method)) {
+                return Optional.empty();
+            }
+            stepDefinitions.add(new IndexedStepDefinition(stepDefinition.getPattern(), stepDefinition.getLocation(),
+                    stepDefinition.getCucumberAnnotation(), method.className(), method.methodName(), method.methodParameterTypes()));
+        }
+        return Optional.of(new Index(List.copyOf(glue.getParameterTypes()), stepDefinitions));
+    }
+
+    static void writeIndex(DataOutputStream out, Index index) throws IOException {
+        writeList(out, index.parameterTypes(), GlueCache::writeParameterType);
+        writeList(out, index.stepDefinitions(), GlueCache::writeStepDefinition);
+    }
+
+    static Index readIndex(DataInputStream in) throws IOException {
+        List<ParameterTypeDefinition> parameterTypes = readList(in, GlueCache::readParameterType);
+        return new Index(parameterTypes, readList(in, GlueCache::readStepDefinition));
+    }
+
+    private static void writeParameterType(DataOutputStream out, ParameterTypeDefinition definition) throws IOException {
+        ParameterType<?> parameterType = definition.parameterType();
+        out.writeUTF(parameterType.getName());
+        writeList(out, parameterType.getRegexps(), DataOutputStream::writeUTF);
+        out.writeBoolean(parameterType.useForSnippets());
+        out.writeBoolean(parameterType.preferForRegexpMatch());
+        out.writeBoolean(parameterType.useRegexpMatchAsStrongTypeHint());
+        out.writeUTF(definition.getLocation());
+    }
+
+    private static ParameterTypeDefinition readParameterType(DataInputStream in) throws IOException {
+        String name = in.readUTF();
+        List<String> regexps = readList(in, DataInput::readUTF);
+        boolean useForSnippets = in.readBoolean();
+        boolean preferForRegexpMatch = in.readBoolean();
+        boolean useRegexpMatchAsStrongTypeHint = in.readBoolean();
+        // the type is only needed to transform arguments
+        ParameterType<Object> parameterType = new ParameterType<>(name, regexps, Object.class,
+                (String[] groups) -> null, useForSnippets, preferForRegexpMatch, useRegexpMatchAsStrongTypeHint);
+        return new IndexedParameterTypeDefinition(parameterType, in.readUTF());
+    }
+
+    private static void writeStepDefinition(DataOutputStream out, IndexedStepDefinition stepDefinition) throws IOException {
+        out.writeUTF(stepDefinition.pattern());
+        out.writeUTF(stepDefinition.location());
+        out.writeUTF(stepDefinition.cucumberAnnotation());
+        out.writeUTF(stepDefinition.className());
+        out.writeUTF(stepDefinition.methodName());
+        writeList(out, stepDefinition.methodParameterTypes(), DataOutputStream::writeUTF);
+    }
+
+    private static IndexedStepDefinition readStepDefinition(DataInputStream in) throws IOException {
+        return new IndexedStepDefinition(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(),
+                readList(in, DataInput::readUTF));
+    }
+
+    @FunctionalInterface
+    private interface Writer<T> {
+        void write(DataOutputStream out, T value) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Reader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+
+    private static <T> void writeList(DataOutputStream out, List<T> values, Writer<T> writer) throws IOException {
+        out.writeInt(values.size());
+        for (T value : values) {
+            writer.write(out, value);
+        }
+    }
+
+    private static <T> List<T> readList(DataInputStream in, Reader<T> reader) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("Corrupt glue index, negative size " + size);
+        }
+        List<T> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(reader.read(in));
+        }
+        return values;
+    }
+
+    /**
+     * Hashes the names, sizes and modification times of all class files of the package, without
+     * loading any of them.
+     */
+    private static Optional<byte[]> fingerprint(URI glueUri) {
+        if (glueUri == null || !"classpath".equals(glueUri.getScheme())) {
+            return Optional.empty();
+        }
+        String packagePath = glueUri.getSchemeSpecificPart().replace('.', '/');
+        while (packagePath.startsWith("/")) {
+            packagePath = packagePath.substring(1);
+        }
+
+        MessageDigest digest = sha256();
+        try {
+            Enumeration<URL> resources = Thread.currentThread().getContextClassLoader().getResources(packagePath);
+            for (URL resource : Collections.list(resources)) {
+                digest.update(resource.toString().getBytes(StandardCharsets.UTF_8));
+                if ("file".equals(resource.getProtocol())) {
+                    fingerprintDirectory(Path.of(resource.toURI()), digest);
+                } else if ("jar".equals(resource.getProtocol())) {
+                    URL jarFile = ((JarURLConnection) resource.openConnection()).getJarFileURL();
+                    fingerprintFile(Path.of(jarFile.toURI()), digest);
+                } else {
+                    return Optional.empty();
+                }
+            }
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            log.debug("Cannot fingerprint glue {}", glueUri, e);
+            return Optional.empty();
+        }
+        return Optional.of(digest.digest());
+    }
+
+    private static void fingerprintDirectory(Path packageDirectory, MessageDigest digest) throws IOException {
+        try (Stream<Path> files = Files.walk(packageDirectory)) {
+            for (Path file : files.filter(file -> file.toString().endsWith(".class")).sorted().toList()) {
+                digest.update(packageDirectory.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+                fingerprintFile(file, digest);
+            }
+        }
+    }
+
+    private static void fingerprintFile(Path file, MessageDigest digest) throws IOException {
+        digest.update((Files.size(file) + "@" + Files.getLastModifiedTime(file).toMillis()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Path entryFor(URI glueUri) {
+        String name = HexFormat.of().formatHex(sha256().digest(glueUri.toString().getBytes(StandardCharsets.UTF_8)));
+        return directory.resolve("glue-" + name + ".index");
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required by every Java platform", e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Could not delete {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.cuke.inspector;
+
+import io.cucumber.core.backend.ParameterTypeDefinition;
+import io.cucumber.cucumberexpressions.ParameterType;
+
+/**
+ * A parameter type restored from the {@link GlueCache}. It matches like the original, but cannot
+ * transform arguments, which the inspections never do.
+ */
+record IndexedParameterTypeDefinition(ParameterType<?> parameterType, String location) implements ParameterTypeDefinition {
+
+    @Override
+    public boolean isDefinedAt(StackTraceElement stackTraceElement) {
+        return false;
+    }
+
+    @Override
+    public String getLocation() {
+        return location;
+    }
+}
@@ -0,0 +1,44 @@
+package org.cuke.inspector;
+
+import io.cucumber.core.backend.ParameterInfo;
+import io.cucumber.core.backend.StepDefinition;
+
+import java.util.List;
+
+/**
+ * A step definition restored from the {@link GlueCache}. It knows everything the inspections need
+ * without loading the glue class. It has no source reference, since Cucumber can only create one
+ * from the loaded method.
+ */
+record IndexedStepDefinition(String pattern,
+                             String location,
+                             String cucumberAnnotation,
+                             String className,
+                             String methodName,
+                             List<String> methodParameterTypes) implements StepDefinition {
+
+    @Override
+    public void execute(Object[] args) {
+        // not used for inspections
+    }
+
+    @Override
+    public List<ParameterInfo> parameterInfos() {
+        return List.of();
+    }
+
+    @Override
+    public String getPattern() {
+        return pattern;
+    }
+
+    @Override
+    public boolean isDefinedAt(StackTraceElement stackTraceElement) {
+        return false;
+    }
+
+    @Override
+    public String getLocation() {
+        return location;
+    }
+}
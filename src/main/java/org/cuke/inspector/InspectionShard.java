@@ -0,0 +1,143 @@
+package org.cuke.inspector;
+
+import io.cucumber.core.backend.ParameterTypeDefinition;
+import io.cucumber.core.runtime.TimeServiceEventBus;
+import io.cucumber.core.stepexpression.StepTypeRegistry;
+import io.cucumber.messages.types.GherkinDocument;
+import io.cucumber.messages.types.Scenario;
+import org.cuke.inspector.checker.GherkinDocumentVisitor;
+import org.cuke.inspector.checker.GherkinDocumentWalker;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * What the global checks need to know about one part of a suite, e.g. the feature files and glue
+ * of one module: the names and locations of its scenarios, the texts of its steps and its step
+ * definitions and parameter types. Shards written on different machines are merged into one
+ * {@link CucumberSupplier} without parsing any feature file or loading any glue class.
+ * <p>
+ * The merged shards only know the scenarios by name and location, so only the duplicate scenario,
+ * duplicate step definition and unused step definition checks can run on them, see
+ * {@link ShardInspector}. All other checks have to run on the parts themselves.
+ */
+final class InspectionShard {
+    private static final int MAGIC = 0x43554b53;
+    private static final int FORMAT_VERSION = 1;
+
+    private InspectionShard() {
+        // don't create helper with static methods
+    }
+
+    static void write(CucumberSupplier cucumberSupplier, Path file) throws IOException {
+        Map<String, List<Scenario>> scenariosByDocument = new LinkedHashMap<>();
+        GherkinDocumentWalker.walk(cucumberSupplier.gherkinDocumentStream(), List.of(new GherkinDocumentVisitor() {
+            @Override
+            public void visitScenario(GherkinDocument gherkinDocument, Scenario scenario) {
+                scenariosByDocument.computeIfAbsent(gherkinDocument.getUri().orElse(""), uri -> new ArrayList<>()).add(scenario);
+            }
+        }));
+        Set<String> stepTexts = new LinkedHashSet<>();
+        cucumberSupplier.parsedFeatureStream()
+                .flatMap(parsedFeature -> parsedFeature.pickles().stream())
+                .flatMap(pickle -> pickle.getSteps().stream())
+                .forEach(pickleStep -> stepTexts.add(pickleStep.getText()));
+        GlueCache.Index glueIndex = cucumberSupplier.hasGlue()
+                ? GlueCache.indexOf(cucumberSupplier.getGlue())
+                .orElseThrow(() -> new IllegalStateException("Only step definitions of Java methods can be written to a shard"))
+                : new GlueCache.Index(List.of(), List.of());
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temporary))))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(scenariosByDocument.size());
+                for (Map.Entry<String, List<Scenario>> document : scenariosByDocument.entrySet()) {
+                    out.writeUTF(document.getKey());
+                    out.writeInt(document.getValue().size());
+                    for (Scenario scenario : document.getValue()) {
+                        out.writeUTF(scenario.getName());
+                        out.writeLong(scenario.getLocation().getLine());
+                        out.writeLong(scenario.getLocation().getColumn().orElse(0L));
+                    }
+                }
+                out.writeInt(stepTexts.size());
+                for (String stepText : stepTexts) {
+                    out.writeUTF(stepText);
+                }
+                GlueCache.writeIndex(out, glueIndex);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Merges the shards in the given order. Step definitions and parameter types found in several
+     * shards, e.g. because the modules share a glue package, are only taken once.
+     */
+    static ShardInspector merge(Collection<Path> files) throws IOException {
+        List<FeatureLocation> scenarios = new ArrayList<>();
+        Set<String> stepTexts = new LinkedHashSet<>();
+        Map<String, ParameterTypeDefinition> parameterTypes = new LinkedHashMap<>();
+        Set<IndexedStepDefinition> stepDefinitions = new LinkedHashSet<>();
+
+        for (Path file : files) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+                if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                    throw new IOException("Not a shard of this version of cuke-inspector: " + file);
+                }
+                int documents = readSize(in);
+                for (int i = 0; i < documents; i++) {
+                    readScenarios(in, scenarios);
+                }
+                int stepTextCount = readSize(in);
+                for (int i = 0; i < stepTextCount; i++) {
+                    stepTexts.add(in.readUTF());
+                }
+                GlueCache.Index glueIndex = GlueCache.readIndex(in);
+                glueIndex.parameterTypes().forEach(parameterType -> parameterTypes.putIfAbsent(parameterType.parameterType().getName(), parameterType));
+                stepDefinitions.addAll(glueIndex.stepDefinitions());
+            } catch (EOFException e) {
+                throw new IOException("Truncated shard " + file, e);
+            }
+        }
+
+        CukeCachingGlue glue = new CukeCachingGlue(new TimeServiceEventBus(Clock.systemUTC(), UUID::randomUUID));
+        parameterTypes.values().forEach(glue::addParameterType);
+        stepDefinitions.forEach(glue::addStepDefinition);
+        glue.prepareGlue(new StepTypeRegistry(Locale.getDefault()));
+        return new ShardInspector(scenarios, new CucumberSupplier(List.of(), stepTexts, glue));
+    }
+
+    private static void readScenarios(DataInputStream in, List<FeatureLocation> scenarios) throws IOException {
+        String uri = in.readUTF();
+        int scenarioCount = readSize(in);
+        for (int i = 0; i < scenarioCount; i++) {
+            String name = in.readUTF();
+            long line = in.readLong();
+            long column = in.readLong();
+            // documents without uri are written with an empty one
+            scenarios.add(new FeatureLocation(Optional.of(uri).filter(Predicate.not(String::isEmpty)), name, line, Optional.of(column)));
+        }
+    }
+
+    private static int readSize(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("Corrupt shard, negative size " + size);
+        }
+        return size;
+    }
+}
@@ -0,0 +1,52 @@
+package org.cuke.inspector;
+
+import java.io.IOException;
+
+/**
+ * The little JSON the report writers need, written straight into the output.
+ */
+final class Json {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private Json() {
+        // don't create helper with static methods
+    }
+
+    static void appendString(Appendable out, String value) throws IOException {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            out.append(value, start, i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xf]);
+            }
+            start = i + 1;
+        }
+        out.append(value, start, value.length()).append('"');
+    }
+
+    /**
+     * The simple name of the violation class without the {@code Violation} suffix, e.g.
+     * {@code DuplicatedScenarios}.
+     */
+    static String ruleIdOf(CukeViolation violation) {
+        String name = violation.getClass().getSimpleName();
+        if (name.endsWith("Violation") && name.length() > "Violation".length()) {
+            return name.substring(0, name.length() - "Violation".length());
+        }
+        return name.isEmpty() ? "CukeViolation" : name;
+    }
+}
@@ -0,0 +1,72 @@
+package org.cuke.inspector;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes every violation as one line of JSON as soon as it is found:
+ * <pre>{"ruleId":"MissingRequiredTag","message":"...","locations":[{"uri":"file:///...","line":3,"column":3,"name":"..."}]}</pre>
+ * Violations of the glue have no locations in feature files; their step definitions are listed as
+ * locations by method and pattern instead:
+ * <pre>{"ruleId":"UnusedStepDefinitions","message":"...","locations":[{"method":"org.example.Steps.act()","pattern":"act"}]}</pre>
+ */
+public final class JsonLinesViolationWriter implements ViolationSink, Closeable {
+    private final Writer writer;
+
+    public JsonLinesViolationWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public static JsonLinesViolationWriter toFile(Path file) throws IOException {
+        return new JsonLinesViolationWriter(Files.newBufferedWriter(file));
+    }
+
+    @Override
+    public boolean accept(CukeViolation violation) {
+        try {
+            writer.append("{\"ruleId\":");
+            Json.appendString(writer, Json.ruleIdOf(violation));
+            writer.append(",\"message\":");
+            Json.appendString(writer, violation.message());
+            writer.append(",\"locations\":[");
+            String separator = "";
+            for (FeatureLocation location : violation.featureLocations()) {
+                writer.append(separator).append("{\"uri\":");
+                Json.appendString(writer, location.fileName());
+                writer.append(",\"line\":");
+                appendNumber(location.lineNumber());
+                writer.append(",\"column\":");
+                appendNumber(location.columnNumber());
+                writer.append(",\"name\":");
+                Json.appendString(writer, location.tokenName());
+                writer.append('}');
+                separator = ",";
+            }
+            for (CukeInspectorStepDefinition stepDefinition : violation.stepDefinitions()) {
+                writer.append(separator).append("{\"method\":");
+                Json.appendString(writer, stepDefinition.getLocation());
+                writer.append(",\"pattern\":");
+                Json.appendString(writer, stepDefinition.getPattern());
+                writer.append('}');
+                separator = ",";
+            }
+            writer.append("]}\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write violation", e);
+        }
+        return true;
+    }
+
+    private void appendNumber(int number) throws IOException {
+        writer.append(number == FeatureLocation.UNKNOWN ? "null" : Integer.toString(number));
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,51 @@
+package org.cuke.inspector;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A value computed on first access, at most once, even if several threads ask for it at the same
+ * time. The value is safely published to all threads. A computation which fails is not remembered,
+ * so the next access tries again.
+ */
+final class Lazy<T> implements Supplier<T> {
+    private final Supplier<? extends T> computation;
+    private volatile T value;
+
+    Lazy(Supplier<? extends T> computation) {
+        this.computation = Objects.requireNonNull(computation);
+    }
+
+    @Override
+    public T get() {
+        T current = value;
+        if (current == null) {
+            synchronized (this) {
+                current = value;
+                if (current == null) {
+                    current = Objects.requireNonNull(computation.get(), "lazy value");
+                    value = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Replaces the value, e.g. after some of its sources changed.
+     */
+    synchronized void set(T newValue) {
+        value = Objects.requireNonNull(newValue);
+    }
+
+    /**
+     * Forgets the value, so the next access computes it again.
+     */
+    synchronized void reset() {
+        value = null;
+    }
+
+    boolean isComputed() {
+        return value != null;
+    }
+}
@@ -0,0 +1,131 @@
+package org.cuke.inspector;
+
+import io.cucumber.gherkin.GherkinParser;
+import io.cucumber.messages.types.GherkinDocument;
+import io.cucumber.messages.types.Pickle;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps the Gherkin documents and pickles of parsed feature files on disk, one entry per feature uri.
+ * An entry is only used if the content hash of the file still matches and it was written by the same
+ * Gherkin version, since another parser version may produce a different document for the same text.
+ * A broken or unreadable entry counts as a miss and is overwritten by the next parse.
+ */
+@Slf4j
+final class ParseCache {
+    private static final int MAGIC = 0x43554b45;
+    private static final int FORMAT_VERSION = 1;
+    private static final String GHERKIN_VERSION = Optional.ofNullable(GherkinParser.class.getPackage().getImplementationVersion())
+            .orElse("unknown");
+
+    private final Path directory;
+
+    ParseCache(Path directory) {
+        this.directory = directory;
+    }
+
+    Optional<ParsedFeatureCodec.Decoded> load(URI uri, byte[] contentHash) {
+        Path entry = entryFor(uri);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+            if (in.readInt() != MAGIC
+                    || in.readInt() != FORMAT_VERSION
+                    || !GHERKIN_VERSION.equals(in.readUTF())
+                    || !uri.toString().equals(in.readUTF())
+                    || !Arrays.equals(contentHash, in.readNBytes(in.readUnsignedByte()))) {
+                return Optional.empty();
+            }
+            return Optional.of(ParsedFeatureCodec.read(in));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable parse cache entry {} for {}", entry, uri, e);
+            return Optional.empty();
+        }
+    }
+
+    boolean hasEntry(URI uri) {
+        return Files.isRegularFile(entryFor(uri));
+    }
+
+    /**
+     * Writes to a temporary file first, so concurrent inspections never read a half written entry.
+     */
+    void store(URI uri, byte[] contentHash, GherkinDocument gherkinDocument, List<Pickle> pickles) {
+        Path entry = entryFor(uri);
+        Path temporary = null;
+        try {
+            Files.createDirectories(directory);
+            temporary = Files.createTempFile(directory, entry.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(GHERKIN_VERSION);
+                out.writeUTF(uri.toString());
+                out.writeByte(contentHash.length);
+                out.write(contentHash);
+                ParsedFeatureCodec.write(out, gherkinDocument, pickles);
+            }
+            Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write parse cache entry {} for {}", entry, uri, e);
+            deleteQuietly(temporary);
+        }
+    }
+
+    /**
+     * Hashes the content while it is read, so the file is never held in memory as a whole.
+     */
+    static byte[] hash(InputStream content) throws IOException {
+        MessageDigest digest = newDigest();
+        try (DigestInputStream in = new DigestInputStream(content, digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return digest.digest();
+    }
+
+    private Path entryFor(URI uri) {
+        String name = HexFormat.of().formatHex(sha256().digest(uri.toString().getBytes(StandardCharsets.UTF_8)));
+        return directory.resolve(name + ".parsed");
+    }
+
+    /**
+     * A digest for content hashes, e.g. to hash a file while it is parsed.
+     */
+    static MessageDigest newDigest() {
+        return sha256();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required by every Java platform", e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Could not delete {}", file, e);
+        }
+    }
+}
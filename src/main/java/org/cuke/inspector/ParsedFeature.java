@@ -0,0 +1,50 @@
+package org.cuke.inspector;
+
+import io.cucumber.core.gherkin.Feature;
+import io.cucumber.messages.types.GherkinDocument;
+import io.cucumber.messages.types.Pickle;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * The result of parsing one feature file: the Gherkin AST, the compiled pickles and the
+ * Cucumber core view of the same parse. All three share the same node ids, except when the
+ * document and pickles come from the parse cache: the core feature cannot be restored from
+ * there, so it is parsed again on first access and has its own ids.
+ */
+public final class ParsedFeature {
+    private final GherkinDocument gherkinDocument;
+    private final List<Pickle> pickles;
+    private Supplier<Feature> featureLoader;
+    private Feature feature;
+
+    public ParsedFeature(GherkinDocument gherkinDocument, List<Pickle> pickles, Feature feature) {
+        this.gherkinDocument = Objects.requireNonNull(gherkinDocument);
+        this.pickles = List.copyOf(pickles);
+        this.feature = Objects.requireNonNull(feature);
+    }
+
+    ParsedFeature(GherkinDocument gherkinDocument, List<Pickle> pickles, Supplier<Feature> featureLoader) {
+        this.gherkinDocument = Objects.requireNonNull(gherkinDocument);
+        this.pickles = List.copyOf(pickles);
+        this.featureLoader = Objects.requireNonNull(featureLoader);
+    }
+
+    public GherkinDocument gherkinDocument() {
+        return gherkinDocument;
+    }
+
+    public List<Pickle> pickles() {
+        return pickles;
+    }
+
+    public synchronized Feature feature() {
+        if (feature == null) {
+            feature = featureLoader.get();
+            featureLoader = null;
+        }
+        return feature;
+    }
+}
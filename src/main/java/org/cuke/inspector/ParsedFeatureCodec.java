@@ -0,0 +1,405 @@
+package org.cuke.inspector;
+
+import io.cucumber.messages.types.*;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Binary encoding of a Gherkin document and its pickles for the {@link ParseCache}. Every field of the
+ * messages is written, in declaration order, so a decoded document is equal to the parsed one.
+ */
+final class ParsedFeatureCodec {
+
+    record Decoded(GherkinDocument gherkinDocument, List<Pickle> pickles) {
+    }
+
+    private ParsedFeatureCodec() {
+    }
+
+    static void write(DataOutputStream out, GherkinDocument gherkinDocument, List<Pickle> pickles) throws IOException {
+        writeGherkinDocument(out, gherkinDocument);
+        writeList(out, pickles, ParsedFeatureCodec::writePickle);
+    }
+
+    static Decoded read(DataInputStream in) throws IOException {
+        GherkinDocument gherkinDocument = readGherkinDocument(in);
+        List<Pickle> pickles = readList(in, ParsedFeatureCodec::readPickle);
+        return new Decoded(gherkinDocument, pickles);
+    }
+
+    @FunctionalInterface
+    private interface Writer<T> {
+        void write(DataOutputStream out, T value) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Reader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+
+    // Gherkin document
+
+    private static void writeGherkinDocument(DataOutputStream out, GherkinDocument document) throws IOException {
+        writeOptional(out, document.getUri(), ParsedFeatureCodec::writeString);
+        writeOptional(out, document.getFeature(), ParsedFeatureCodec::writeFeature);
+        writeList(out, document.getComments(), ParsedFeatureCodec::writeComment);
+    }
+
+    private static GherkinDocument readGherkinDocument(DataInputStream in) throws IOException {
+        return new GherkinDocument(
+                readOptional(in, ParsedFeatureCodec::readString),
+                readOptional(in, ParsedFeatureCodec::readFeature),
+                readList(in, ParsedFeatureCodec::readComment));
+    }
+
+    private static void writeFeature(DataOutputStream out, Feature feature) throws IOException {
+        writeLocation(out, feature.getLocation());
+        writeList(out, feature.getTags(), ParsedFeatureCodec::writeTag);
+        writeString(out, feature.getLanguage());
+        writeString(out, feature.getKeyword());
+        writeString(out, feature.getName());
+        writeString(out, feature.getDescription());
+        writeList(out, feature.getChildren(), ParsedFeatureCodec::writeFeatureChild);
+    }
+
+    private static Feature readFeature(DataInputStream in) throws IOException {
+        return new Feature(
+                readLocation(in),
+                readList(in, ParsedFeatureCodec::readTag),
+                readString(in),
+                readString(in),
+                readString(in),
+                readString(in),
+                readList(in, ParsedFeatureCodec::readFeatureChild));
+    }
+
+    private static void writeFeatureChild(DataOutputStream out, FeatureChild child) throws IOException {
+        writeOptional(out, child.getRule(), ParsedFeatureCodec::writeRule);
+        writeOptional(out, child.getBackground(), ParsedFeatureCodec::writeBackground);
+        writeOptional(out, child.getScenario(), ParsedFeatureCodec::writeScenario);
+    }
+
+    private static FeatureChild readFeatureChild(DataInputStream in) throws IOException {
+        return new FeatureChild(
+                readOptional(in, ParsedFeatureCodec::readRule),
+                readOptional(in, ParsedFeatureCodec::readBackground),
+                readOptional(in, ParsedFeatureCodec::readScenario));
+    }
+
+    private static void writeRule(DataOutputStream out, Rule rule) throws IOException {
+        writeLocation(out, rule.getLocation());
+        writeList(out, rule.getTags(), ParsedFeatureCodec::writeTag);
+        writeString(out, rule.getKeyword());
+        writeString(out, rule.getName());
+        writeString(out, rule.getDescription());
+        writeList(out, rule.getChildren(), ParsedFeatureCodec::writeRuleChild);
+        writeString(out, rule.getId());
+    }
+
+    private static Rule readRule(DataInputStream in) throws IOException {
+        return new Rule(
+                readLocation(in),
+                readList(in, ParsedFeatureCodec::readTag),
+                readString(in),
+                readString(in),
+                readString(in),
+                readList(in, ParsedFeatureCodec::readRuleChild),
+                readString(in));
+    }
+
+    private static void writeRuleChild(DataOutputStream out, RuleChild child) throws IOException {
+        writeOptional(out, child.getBackground(), ParsedFeatureCodec::writeBackground);
+        writeOptional(out, child.getScenario(), ParsedFeatureCodec::writeScenario);
+    }
+
+    private static RuleChild readRuleChild(DataInputStream in) throws IOException {
+        return new RuleChild(
+                readOptional(in, ParsedFeatureCodec::readBackground),
+                readOptional(in, ParsedFeatureCodec::readScenario));
+    }
+
+    private static void writeBackground(DataOutputStream out, Background background) throws IOException {
+        writeLocation(out, background.getLocation());
+        writeString(out, background.getKeyword());
+        writeString(out, background.getName());
+        writeString(out, background.getDescription());
+        writeList(out, background.getSteps(), ParsedFeatureCodec::writeStep);
+        writeString(out, background.getId());
+    }
+
+    private static Background readBackground(DataInputStream in) throws IOException {
+        return new Background(
+                readLocation(in),
+                readString(in),
+                readString(in),
+                readString(in),
+                readList(in, ParsedFeatureCodec::readStep),
+                readString(in));
+    }
+
+    private static void writeScenario(DataOutputStream out, Scenario scenario) throws IOException {
+        writeLocation(out, scenario.getLocation());
+        writeList(out, scenario.getTags(), ParsedFeatureCodec::writeTag);
+        writeString(out, scenario.getKeyword());
+        writeString(out, scenario.getName());
+        writeString(out, scenario.getDescription());
+        writeList(out, scenario.getSteps(), ParsedFeatureCodec::writeStep);
+        writeList(out, scenario.getExamples(), ParsedFeatureCodec::writeExamples);
+        writeString(out, scenario.getId());
+    }
+
+    private static Scenario readScenario(DataInputStream in) throws IOException {
+        return new Scenario(
+                readLocation(in),
+                readList(in, ParsedFeatureCodec::readTag),
+                readString(in),
+                readString(in),
+                readString(in),
+                readList(in, ParsedFeatureCodec::readStep),
+                readList(in, ParsedFeatureCodec::readExamples),
+                readString(in));
+    }
+
+    private static void writeStep(DataOutputStream out, Step step) throws IOException {
+        writeLocation(out, step.getLocation());
+        writeString(out, step.getKeyword());
+        writeOptional(out, step.getKeywordType(), (o, type) -> writeString(o, type.name()));
+        writeString(out, step.getText());
+        writeOptional(out, step.getDocString(), ParsedFeatureCodec::writeDocString);
+        writeOptional(out, step.getDataTable(), ParsedFeatureCodec::writeDataTable);
+        writeString(out, step.getId());
+    }
+
+    private static Step readStep(DataInputStream in) throws IOException {
+        return new Step(
+                readLocation(in),
+                readString(in),
+                readOptional(in, i -> StepKeywordType.valueOf(readString(i))),
+                readString(in),
+                readOptional(in, ParsedFeatureCodec::readDocString),
+                readOptional(in, ParsedFeatureCodec::readDataTable),
+                readString(in));
+    }
+
+    private static void writeDocString(DataOutputStream out, DocString docString) throws IOException {
+        writeLocation(out, docString.getLocation());
+        writeOptional(out, docString.getMediaType(), ParsedFeatureCodec::writeString);
+        writeString(out, docString.getContent());
+        writeString(out, docString.getDelimiter());
+    }
+
+    private static DocString readDocString(DataInputStream in) throws IOException {
+        return new DocString(
+                readLocation(in),
+                readOptional(in, ParsedFeatureCodec::readString),
+                readString(in),
+                readString(in));
+    }
+
+    private static void writeDataTable(DataOutputStream out, DataTable dataTable) throws IOException {
+        writeLocation(out, dataTable.getLocation());
+        writeList(out, dataTable.getRows(), ParsedFeatureCodec::writeTableRow);
+    }
+
+    private static DataTable readDataTable(DataInputStream in) throws IOException {
+        return new DataTable(
+                readLocation(in),
+                readList(in, ParsedFeatureCodec::readTableRow));
+    }
+
+    private static void writeExamples(DataOutputStream out, Examples examples) throws IOException {
+        writeLocation(out, examples.getLocation());
+        writeList(out, examples.getTags(), ParsedFeatureCodec::writeTag);
+        writeString(out, examples.getKeyword());
+        writeString(out, examples.getName());
+        writeString(out, examples.getDescription());
+        writeOptional(out, examples.getTableHeader(), ParsedFeatureCodec::writeTableRow);
+        writeList(out, examples.getTableBody(), ParsedFeatureCodec::writeTableRow);
+        writeString(out, examples.getId());
+    }
+
+    private static Examples readExamples(DataInputStream in) throws IOException {
+        return new Examples(
+                readLocation(in),
+                readList(in, ParsedFeatureCodec::readTag),
+                readString(in),
+                readString(in),
+                readString(in),
+                readOptional(in, ParsedFeatureCodec::readTableRow),
+                readList(in, ParsedFeatureCodec::readTableRow),
+                readString(in));
+    }
+
+    private static void writeTableRow(DataOutputStream out, TableRow row) throws IOException {
+        writeLocation(out, row.getLocation());
+        writeList(out, row.getCells(), ParsedFeatureCodec::writeTableCell);
+        writeString(out, row.getId());
+    }
+
+    private static TableRow readTableRow(DataInputStream in) throws IOException {
+        return new TableRow(
+                readLocation(in),
+                readList(in, ParsedFeatureCodec::readTableCell),
+                readString(in));
+    }
+
+    private static void writeTableCell(DataOutputStream out, TableCell cell) throws IOException {
+        writeLocation(out, cell.getLocation());
+        writeString(out, cell.getValue());
+    }
+
+    private static TableCell readTableCell(DataInputStream in) throws IOException {
+        return new TableCell(readLocation(in), readString(in));
+    }
+
+    private static void writeTag(DataOutputStream out, Tag tag) throws IOException {
+        writeLocation(out, tag.getLocation());
+        writeString(out, tag.getName());
+        writeString(out, tag.getId());
+    }
+
+    private static Tag readTag(DataInputStream in) throws IOException {
+        return new Tag(readLocation(in), readString(in), readString(in));
+    }
+
+    private static void writeComment(DataOutputStream out, Comment comment) throws IOException {
+        writeLocation(out, comment.getLocation());
+        writeString(out, comment.getText());
+    }
+
+    private static Comment readComment(DataInputStream in) throws IOException {
+        return new Comment(readLocation(in), readString(in));
+    }
+
+    private static void writeLocation(DataOutputStream out, Location location) throws IOException {
+        out.writeLong(location.getLine());
+        writeOptional(out, location.getColumn(), DataOutputStream::writeLong);
+    }
+
+    private static Location readLocation(DataInputStream in) throws IOException {
+        return new Location(in.readLong(), readOptional(in, DataInputStream::readLong));
+    }
+
+    // Pickles
+
+    private static void writePickle(DataOutputStream out, Pickle pickle) throws IOException {
+        writeString(out, pickle.getId());
+        writeString(out, pickle.getUri());
+        writeString(out, pickle.getName());
+        writeString(out, pickle.getLanguage());
+        writeList(out, pickle.getSteps(), ParsedFeatureCodec::writePickleStep);
+        writeList(out, pickle.getTags(), ParsedFeatureCodec::writePickleTag);
+        writeList(out, pickle.getAstNodeIds(), ParsedFeatureCodec::writeString);
+    }
+
+    private static Pickle readPickle(DataInputStream in) throws IOException {
+        return new Pickle(
+                readString(in),
+                readString(in),
+                readString(in),
+                readString(in),
+                readList(in, ParsedFeatureCodec::readPickleStep),
+                readList(in, ParsedFeatureCodec::readPickleTag),
+                readList(in, ParsedFeatureCodec::readString));
+    }
+
+    private static void writePickleStep(DataOutputStream out, PickleStep step) throws IOException {
+        writeOptional(out, step.getArgument(), ParsedFeatureCodec::writePickleStepArgument);
+        writeList(out, step.getAstNodeIds(), ParsedFeatureCodec::writeString);
+        writeString(out, step.getId());
+        writeOptional(out, step.getType(), (o, type) -> writeString(o, type.name()));
+        writeString(out, step.getText());
+    }
+
+    private static PickleStep readPickleStep(DataInputStream in) throws IOException {
+        return new PickleStep(
+                readOptional(in, ParsedFeatureCodec::readPickleStepArgument),
+                readList(in, ParsedFeatureCodec::readString),
+                readString(in),
+                readOptional(in, i -> PickleStepType.valueOf(readString(i))),
+                readString(in));
+    }
+
+    private static void writePickleStepArgument(DataOutputStream out, PickleStepArgument argument) throws IOException {
+        writeOptional(out, argument.getDocString(), (o, docString) -> {
+            writeOptional(o, docString.getMediaType(), ParsedFeatureCodec::writeString);
+            writeString(o, docString.getContent());
+        });
+        writeOptional(out, argument.getDataTable(), (o, table) ->
+                writeList(o, table.getRows(), (o2, row) ->
+                        writeList(o2, row.getCells(), (o3, cell) -> writeString(o3, cell.getValue()))));
+    }
+
+    private static PickleStepArgument readPickleStepArgument(DataInputStream in) throws IOException {
+        return new PickleStepArgument(
+                readOptional(in, i -> new PickleDocString(readOptional(i, ParsedFeatureCodec::readString), readString(i))),
+                readOptional(in, i -> new PickleTable(
+                        readList(i, i2 -> new PickleTableRow(
+                                readList(i2, i3 -> new PickleTableCell(readString(i3))))))));
+    }
+
+    private static void writePickleTag(DataOutputStream out, PickleTag tag) throws IOException {
+        writeString(out, tag.getName());
+        writeString(out, tag.getAstNodeId());
+    }
+
+    private static PickleTag readPickleTag(DataInputStream in) throws IOException {
+        return new PickleTag(readString(in), readString(in));
+    }
+
+    // Primitives
+
+    /**
+     * Not {@link DataOutputStream#writeUTF(String)}, which is limited to 64 KiB, too small for large doc strings.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return new String(in.readNBytes(readLength(in)), StandardCharsets.UTF_8);
+    }
+
+    private static <T> void writeOptional(DataOutputStream out, Optional<T> value, Writer<T> writer) throws IOException {
+        out.writeBoolean(value.isPresent());
+        if (value.isPresent()) {
+            writer.write(out, value.get());
+        }
+    }
+
+    private static <T> T readOptional(DataInputStream in, Reader<T> reader) throws IOException {
+        return in.readBoolean() ? reader.read(in) : null;
+    }
+
+    private static <T> void writeList(DataOutputStream out, List<T> values, Writer<T> writer) throws IOException {
+        out.writeInt(values.size());
+        for (T value : values) {
+            writer.write(out, value);
+        }
+    }
+
+    private static <T> List<T> readList(DataInputStream in, Reader<T> reader) throws IOException {
+        int size = readLength(in);
+        List<T> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(reader.read(in));
+        }
+        return values;
+    }
+
+    private static int readLength(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Corrupt cache entry, negative length " + length);
+        }
+        return length;
+    }
+}
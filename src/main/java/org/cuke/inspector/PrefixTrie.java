@@ -0,0 +1,41 @@
+package org.cuke.inspector;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps string keys to values and finds all values whose key is a prefix of a given text
+ * in time proportional to the length of that text.
+ */
+public final class PrefixTrie<T> {
+
+    private final Node<T> root = new Node<>();
+
+    public void put(String key, T value) {
+        Node<T> node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), character -> new Node<>());
+        }
+        node.values.add(value);
+    }
+
+    public List<T> findPrefixesOf(String text) {
+        List<T> found = new ArrayList<>(root.values);
+        Node<T> node = root;
+        for (int i = 0; i < text.length(); i++) {
+            node = node.children.get(text.charAt(i));
+            if (node == null) {
+                break;
+            }
+            found.addAll(node.values);
+        }
+        return found;
+    }
+
+    private static final class Node<T> {
+        private final Map<Character, Node<T>> children = new HashMap<>(4);
+        private final List<T> values = new ArrayList<>(1);
+    }
+}
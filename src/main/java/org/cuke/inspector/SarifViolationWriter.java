@@ -0,0 +1,205 @@
+package org.cuke.inspector;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes a SARIF 2.1.0 log for code scanning dashboards, one result per violation as soon as it is
+ * found. The log is only complete once the writer is closed, which also writes the rules of all
+ * violations found. The first location of a violation is the location of its result, the others are
+ * its related locations. Violations of the glue have no locations in feature files, their step
+ * definitions are written as logical locations named by their methods.
+ * <p>
+ * Given a base directory, the feature files below it are written relative to {@value #SOURCE_ROOT},
+ * so that dashboards can map them to the files of the repository.
+ */
+public final class SarifViolationWriter implements ViolationSink, Closeable {
+    private static final String HEADER = "{\"version\":\"2.1.0\","
+            + "\"$schema\":\"https://json.schemastore.org/sarif-2.1.0.json\","
+            + "\"runs\":[{\"results\":[";
+    private static final String DRIVER = "],\"tool\":{\"driver\":{\"name\":\"cuke-inspector\","
+            + "\"informationUri\":\"https://github.com/rolger/cuke-inspector\",\"rules\":[";
+    private static final String SOURCE_ROOT = "SRCROOT";
+
+    private final Writer writer;
+    private final Path baseDirectory;
+    private final URI baseUri;
+    // rule id to rule index, in the order the rules are written
+    private final Map<String, Integer> ruleIndexes = new LinkedHashMap<>();
+    private final Map<String, String> ruleDescriptions = new LinkedHashMap<>();
+    private boolean firstResult = true;
+
+    public SarifViolationWriter(Writer writer) throws IOException {
+        this(writer, null);
+    }
+
+    /**
+     * @param baseDirectory the directory feature files are written relative to, usually the root of the repository
+     */
+    public SarifViolationWriter(Writer writer, Path baseDirectory) throws IOException {
+        this.writer = writer;
+        this.baseDirectory = baseDirectory == null ? null : baseDirectory.toAbsolutePath().normalize();
+        this.baseUri = this.baseDirectory == null ? null : directoryUriOf(this.baseDirectory);
+        writer.append(HEADER);
+    }
+
+    public static SarifViolationWriter toFile(Path file) throws IOException {
+        return toFile(file, null);
+    }
+
+    public static SarifViolationWriter toFile(Path file, Path baseDirectory) throws IOException {
+        return new SarifViolationWriter(Files.newBufferedWriter(file), baseDirectory);
+    }
+
+    @Override
+    public boolean accept(CukeViolation violation) {
+        try {
+            String ruleId = Json.ruleIdOf(violation);
+            Integer ruleIndex = ruleIndexes.computeIfAbsent(ruleId, id -> {
+                ruleDescriptions.put(id, violation.ruleDescription());
+                return ruleIndexes.size();
+            });
+            writer.append(firstResult ? "\n" : ",\n").append("{\"ruleId\":");
+            Json.appendString(writer, ruleId);
+            writer.append(",\"ruleIndex\":").append(ruleIndex.toString())
+                    .append(",\"level\":\"").append(levelOf(violation.severity()))
+                    .append("\",\"message\":{\"text\":");
+            Json.appendString(writer, violation.message());
+            writer.append("},\"locations\":[");
+            int written = 0;
+            for (FeatureLocation location : violation.featureLocations()) {
+                appendSeparator(written++);
+                appendLocation(location);
+            }
+            for (CukeInspectorStepDefinition stepDefinition : violation.stepDefinitions()) {
+                appendSeparator(written++);
+                appendStepDefinition(stepDefinition);
+            }
+            writer.append("]}");
+            firstResult = false;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write violation", e);
+        }
+        return true;
+    }
+
+    /**
+     * The first location is where the result is shown, all others are related to it.
+     */
+    private void appendSeparator(int written) throws IOException {
+        if (written == 1) {
+            writer.append("],\"relatedLocations\":[");
+        } else if (written > 1) {
+            writer.append(',');
+        }
+    }
+
+    /**
+     * Step definitions are only known by their method, so they get a logical location.
+     */
+    private void appendStepDefinition(CukeInspectorStepDefinition stepDefinition) throws IOException {
+        writer.append("{\"logicalLocations\":[{\"fullyQualifiedName\":");
+        Json.appendString(writer, stepDefinition.getLocation());
+        writer.append(",\"kind\":\"function\"}],\"message\":{\"text\":");
+        Json.appendString(writer, stepDefinition.getPattern());
+        writer.append("}}");
+    }
+
+    private static String levelOf(CukeViolation.Severity severity) {
+        return switch (severity) {
+            case ERROR -> "error";
+            case WARNING -> "warning";
+            case NOTE -> "note";
+        };
+    }
+
+    private void appendLocation(FeatureLocation location) throws IOException {
+        writer.append("{\"physicalLocation\":{\"artifactLocation\":{\"uri\":");
+        String relativeUri = relativeUriOf(location.fileName());
+        if (relativeUri == null) {
+            Json.appendString(writer, location.fileName());
+        } else {
+            Json.appendString(writer, relativeUri);
+            writer.append(",\"uriBaseId\":\"" + SOURCE_ROOT + "\"");
+        }
+        writer.append('}');
+        // SARIF lines and columns start at 1, unknown ones are left out
+        if (location.lineNumber() > 0) {
+            writer.append(",\"region\":{\"startLine\":").append(Integer.toString(location.lineNumber()));
+            if (location.columnNumber() > 0) {
+                writer.append(",\"startColumn\":").append(Integer.toString(location.columnNumber()));
+            }
+            writer.append('}');
+        }
+        writer.append('}');
+        if (location.tokenName() != null) {
+            writer.append(",\"logicalLocations\":[{\"name\":");
+            Json.appendString(writer, location.tokenName());
+            writer.append("}]");
+        }
+        writer.append('}');
+    }
+
+    /**
+     * The file name relative to the base directory, {@code null} if it is not a file below it.
+     */
+    private String relativeUriOf(String fileName) {
+        if (baseDirectory == null || fileName == null) {
+            return null;
+        }
+        Path file;
+        try {
+            URI uri = new URI(fileName);
+            if (!"file".equals(uri.getScheme()) || uri.isOpaque()) {
+                return null;
+            }
+            file = Path.of(uri).normalize();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+        if (!file.startsWith(baseDirectory)) {
+            return null;
+        }
+        return baseUri.relativize(file.toUri()).toString();
+    }
+
+    // SARIF wants base URIs to end with a slash, Path only adds it for existing directories
+    private static URI directoryUriOf(Path directory) {
+        String uri = directory.toUri().toString();
+        return URI.create(uri.endsWith("/") ? uri : uri + "/");
+    }
+
+    /**
+     * Completes the log with the rules of all violations written and closes the underlying writer.
+     */
+    @Override
+    public void close() throws IOException {
+        try (writer) {
+            writer.append(DRIVER);
+            String separator = "";
+            for (Map.Entry<String, String> rule : ruleDescriptions.entrySet()) {
+                writer.append(separator).append("\n{\"id\":");
+                Json.appendString(writer, rule.getKey());
+                writer.append(",\"shortDescription\":{\"text\":");
+                Json.appendString(writer, rule.getValue());
+                writer.append("}}");
+                separator = ",";
+            }
+            writer.append("]}}");
+            if (baseDirectory != null) {
+                writer.append(",\"originalUriBaseIds\":{\"" + SOURCE_ROOT + "\":{\"uri\":");
+                Json.appendString(writer, baseUri.toString());
+                writer.append("}}");
+            }
+            writer.append("}]}\n");
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.cuke.inspector;
+
+import org.cuke.inspector.checker.DuplicateScenariosChecker;
+import org.cuke.inspector.checker.DuplicateStepDefinitionsChecker;
+import org.cuke.inspector.checker.UnusedStepDefinitionsChecker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Runs the global checks on shards merged by {@link CukeInspector#fromShards(java.util.Collection)}.
+ * A shard only knows the names and locations of the scenarios, the step texts and the step
+ * definitions of its part of the suite, so only the checks which need nothing else are offered.
+ */
+public final class ShardInspector {
+    private final List<FeatureLocation> scenarios;
+    private final CucumberSupplier cucumberSupplier;
+    private final List<CukeViolation> violations = new ArrayList<>();
+
+    /**
+     * @param scenarios        the scenarios of all shards, their token names are the scenario names
+     * @param cucumberSupplier the step texts and glue of all shards, without any feature
+     */
+    ShardInspector(List<FeatureLocation> scenarios, CucumberSupplier cucumberSupplier) {
+        this.scenarios = List.copyOf(scenarios);
+        this.cucumberSupplier = cucumberSupplier;
+    }
+
+    public ShardInspector findDuplicateScenarioNames() {
+        DuplicateScenariosChecker checker = new DuplicateScenariosChecker();
+        scenarios.forEach(checker::addScenario);
+        violations.addAll(checker.getViolations());
+        return this;
+    }
+
+    public ShardInspector findDuplicateStepDefinitions() {
+        violations.addAll(new DuplicateStepDefinitionsChecker().inspect(cucumberSupplier));
+        return this;
+    }
+
+    public ShardInspector findUnusedStepDefinitions() {
+        violations.addAll(new UnusedStepDefinitionsChecker().inspect(cucumberSupplier));
+        return this;
+    }
+
+    public List<CukeViolation> getViolations() {
+        return Collections.unmodifiableList(violations);
+    }
+
+    /**
+     * Fails with the formatted violations, like {@link CukeInspector#hasNoViolations()}.
+     */
+    public void hasNoViolations() {
+        CukeInspector.assertNoViolations(violations);
+    }
+}
@@ -0,0 +1,72 @@
+package org.cuke.inspector;
+
+import io.cucumber.core.backend.JavaMethodReference;
+import io.cucumber.java.StepDefinitionAnnotation;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The Cucumber annotations of step definition methods, by their pattern. A method is only reflected
+ * on once; all step definitions of the method share the result. Every glue has its own instance, so
+ * the looked up methods are forgotten together with the glue, e.g. when it is loaded again.
+ */
+@Slf4j
+final class StepDefinitionAnnotations {
+
+    private final Map<JavaMethodReference, Optional<Map<String, String>>> annotationsByMethod = new ConcurrentHashMap<>();
+
+    /**
+     * @return the simple names of the step definition annotations of the method by their pattern, or
+     * nothing if the method does not exist
+     */
+    Optional<Map<String, String>> of(JavaMethodReference methodReference) {
+        return annotationsByMethod.computeIfAbsent(methodReference, StepDefinitionAnnotations::lookup);
+    }
+
+    private static Optional<Map<String, String>> lookup(JavaMethodReference methodReference) {
+        try {
+            Class<?> glueClass = Class.forName(methodReference.className(), false, Thread.currentThread().getContextClassLoader());
+            return Arrays.stream(glueClass.getDeclaredMethods())
+                    .filter(method -> method.getName().equals(methodReference.methodName()))
+                    .filter(method -> parameterTypesOf(method).equals(methodReference.methodParameterTypes()))
+                    .findFirst()
+                    .map(StepDefinitionAnnotations::annotationsByPattern);
+        } catch (ClassNotFoundException e) {
+            log.warn("Cannot find step definition class {}", methodReference.className());
+            return Optional.empty();
+        }
+    }
+
+    private static List<String> parameterTypesOf(Method method) {
+        return Arrays.stream(method.getParameterTypes())
+                .map(Class::getName)
+                .toList();
+    }
+
+    private static Map<String, String> annotationsByPattern(Method method) {
+        Map<String, String> annotationsByPattern = new HashMap<>();
+        for (Annotation annotation : method.getDeclaredAnnotations()) {
+            if (isStepDefinitionAnnotation(annotation)) {
+                for (Method annotationMethod : annotation.annotationType().getDeclaredMethods()) {
+                    try {
+                        annotationsByPattern.putIfAbsent(String.valueOf(annotationMethod.invoke(annotation)),
+                                annotation.annotationType().getSimpleName());
+                    } catch (ReflectiveOperationException e) {
+                        log.error("Cannot read {} of {}", annotationMethod.getName(), annotation, e);
+                    }
+                }
+            }
+        }
+        return Map.copyOf(annotationsByPattern);
+    }
+
+    // copied from MethodScanner
+    private static boolean isStepDefinitionAnnotation(Annotation annotation) {
+        Class<? extends Annotation> annotationClass = annotation.annotationType();
+        return annotationClass.getAnnotation(StepDefinitionAnnotation.class) != null;
+    }
+}
@@ -0,0 +1,44 @@
+package org.cuke.inspector;
+
+import java.util.*;
+
+/**
+ * Finds the step definitions matching a Gherkin step text without trying every expression.
+ * Definitions without parameters are looked up by their text; all others are narrowed down to
+ * those whose leading literal text is a prefix of the step text before their expression is matched.
+ */
+public final class StepDefinitionIndex {
+
+    private final Map<String, List<CukeInspectorStepDefinition>> literalDefinitions = new HashMap<>();
+    private final PrefixTrie<List<CukeInspectorStepDefinition>> expressionDefinitions = new PrefixTrie<>();
+
+    public StepDefinitionIndex(Map<String, List<CukeInspectorStepDefinition>> stepDefinitionsByPattern) {
+        stepDefinitionsByPattern.values().forEach(definitions -> {
+            CukeInspectorStepDefinition definition = definitions.getFirst();
+            if (definition.isLiteral()) {
+                literalDefinitions.put(definition.getPattern(), definitions);
+            } else {
+                expressionDefinitions.put(definition.getLiteralPrefix(), definitions);
+            }
+        });
+    }
+
+    public List<CukeInspectorStepDefinition> findMatching(String stepText) {
+        List<CukeInspectorStepDefinition> matching = new ArrayList<>(literalDefinitions.getOrDefault(stepText, List.of()));
+        for (List<CukeInspectorStepDefinition> candidates : expressionDefinitions.findPrefixesOf(stepText)) {
+            // all definitions of a pattern share the same expression
+            if (candidates.getFirst().matches(stepText)) {
+                matching.addAll(candidates);
+            }
+        }
+        return matching;
+    }
+
+    public boolean hasMatching(String stepText) {
+        if (literalDefinitions.containsKey(stepText)) {
+            return true;
+        }
+        return expressionDefinitions.findPrefixesOf(stepText).stream()
+                .anyMatch(candidates -> candidates.getFirst().matches(stepText));
+    }
+}
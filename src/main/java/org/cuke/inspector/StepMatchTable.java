@@ -0,0 +1,97 @@
+package org.cuke.inspector;
+
+import java.util.*;
+
+/**
+ * The relation between the distinct Gherkin step texts of all features and the step definitions
+ * matching them. Every distinct step text is matched once and answers missing, unused and
+ * ambiguous steps alike.
+ * <p>
+ * The table counts the features using each step text, so it can follow changed features: the step
+ * texts of a changed feature are removed and added again, and only texts which no feature used
+ * before are matched against the step definitions.
+ */
+public final class StepMatchTable {
+
+    private final StepDefinitionIndex stepDefinitionIndex;
+    private final Map<String, MatchedStepText> matchesByStepText;
+    // the number of distinct step texts matching each step definition
+    private final Map<CukeInspectorStepDefinition, Integer> usesByStepDefinition;
+
+    public StepMatchTable(Collection<String> stepTexts, StepDefinitionIndex stepDefinitionIndex) {
+        this.stepDefinitionIndex = stepDefinitionIndex;
+        matchesByStepText = new LinkedHashMap<>();
+        usesByStepDefinition = new IdentityHashMap<>();
+        add(stepTexts);
+    }
+
+    /**
+     * Counts the step texts of one more feature.
+     *
+     * @param stepTexts the distinct step texts of the feature
+     */
+    public void add(Collection<String> stepTexts) {
+        for (String stepText : stepTexts) {
+            matchesByStepText.computeIfAbsent(stepText, text -> {
+                List<CukeInspectorStepDefinition> matching = List.copyOf(stepDefinitionIndex.findMatching(text));
+                matching.forEach(stepDefinition -> usesByStepDefinition.merge(stepDefinition, 1, Integer::sum));
+                return new MatchedStepText(matching);
+            }).features++;
+        }
+    }
+
+    /**
+     * Forgets the step texts of a feature which was changed or deleted.
+     *
+     * @param stepTexts the distinct step texts the feature had when it was added
+     */
+    public void remove(Collection<String> stepTexts) {
+        for (String stepText : stepTexts) {
+            MatchedStepText matched = matchesByStepText.get(stepText);
+            if (matched != null && --matched.features == 0) {
+                matchesByStepText.remove(stepText);
+                matched.stepDefinitions.forEach(stepDefinition ->
+                        usesByStepDefinition.computeIfPresent(stepDefinition, (unused, uses) -> uses == 1 ? null : uses - 1));
+            }
+        }
+    }
+
+    public Set<String> getStepTexts() {
+        return Collections.unmodifiableSet(matchesByStepText.keySet());
+    }
+
+    public List<CukeInspectorStepDefinition> getMatchingStepDefinitions(String stepText) {
+        MatchedStepText matched = matchesByStepText.get(stepText);
+        return matched == null ? List.of() : matched.stepDefinitions;
+    }
+
+    public boolean isImplemented(String stepText) {
+        return !getMatchingStepDefinitions(stepText).isEmpty();
+    }
+
+    public boolean isUsed(CukeInspectorStepDefinition stepDefinition) {
+        return usesByStepDefinition.containsKey(stepDefinition);
+    }
+
+    /**
+     * @return the step texts matching more than one step definition, with these definitions
+     */
+    public Map<String, List<CukeInspectorStepDefinition>> getAmbiguousSteps() {
+        Map<String, List<CukeInspectorStepDefinition>> ambiguousSteps = new LinkedHashMap<>();
+        matchesByStepText.forEach((stepText, matched) -> {
+            if (matched.stepDefinitions.size() > 1) {
+                ambiguousSteps.put(stepText, matched.stepDefinitions);
+            }
+        });
+        return ambiguousSteps;
+    }
+
+    private static final class MatchedStepText {
+        private final List<CukeInspectorStepDefinition> stepDefinitions;
+        private int features;
+
+        private MatchedStepText(List<CukeInspectorStepDefinition> stepDefinitions) {
+            this.stepDefinitions = stepDefinitions;
+        }
+    }
+}
@@ -1,18 +1,108 @@
 package org.cuke.inspector;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.stream.Collectors;
 
+/**
+ * Writes violations straight into an {@link Appendable}, e.g. the writer of a report file, piece by
+ * piece: there are no format strings to parse and no intermediate strings per violation.
+ */
 final class ViolationFormatter {
+    private static final String NEW_LINE = System.lineSeparator();
+
     private ViolationFormatter() {
     }
 
     public static String format(List<CukeViolation> cukeViolations) {
-        return cukeViolations.stream().map(CukeViolation::format).collect(Collectors.joining());
+        StringBuilder sb = new StringBuilder(cukeViolations.size() * 128);
+        try {
+            formatTo(cukeViolations, sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException("A StringBuilder does not throw", e);
+        }
+        return sb.toString();
     }
 
+    /**
+     * The layout of violations at one location: the location and the message on one line.
+     */
     public static String format(CukeViolation cukeViolation) {
+        StringBuilder sb = new StringBuilder(128);
+        try {
+            formatLocationAndMessage(cukeViolation, sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException("A StringBuilder does not throw", e);
+        }
+        return sb.toString();
+    }
+
+    public static void formatTo(Iterable<? extends CukeViolation> cukeViolations, Appendable out) throws IOException {
+        for (CukeViolation cukeViolation : cukeViolations) {
+            cukeViolation.formatTo(out);
+        }
+    }
+
+    /**
+     * A violation at one location is written as the location and the message on one line. All others
+     * get the message on a line of its own, followed by a line for each of their locations and step
+     * definitions.
+     */
+    static void appendViolation(CukeViolation cukeViolation, Appendable out) throws IOException {
+        if (cukeViolation.featureLocation() != null) {
+            formatLocationAndMessage(cukeViolation, out);
+            return;
+        }
+        appendHeader(out, cukeViolation.message());
+        for (FeatureLocation location : cukeViolation.featureLocations()) {
+            out.append("   ");
+            appendLocation(out, location);
+            out.append(' ').append(NEW_LINE);
+        }
+        for (CukeInspectorStepDefinition stepDefinition : cukeViolation.stepDefinitions()) {
+            appendStepDefinition(out, stepDefinition);
+        }
+    }
+
+    private static void formatLocationAndMessage(CukeViolation cukeViolation, Appendable out) throws IOException {
         FeatureLocation featureLocation = cukeViolation.featureLocation();
-        return "%n%s:[%d,%d] %s%n".formatted(featureLocation.fileName(), featureLocation.line(), featureLocation.column(), cukeViolation.message());
+        out.append(NEW_LINE);
+        appendLocation(out, featureLocation);
+        out.append(' ').append(cukeViolation.message()).append(NEW_LINE);
+    }
+
+    private static void appendHeader(Appendable out, String message) throws IOException {
+        out.append(NEW_LINE).append(message).append(NEW_LINE);
+    }
+
+    /**
+     * Appends {@code file:[line,column]}.
+     */
+    private static void appendLocation(Appendable out, FeatureLocation featureLocation) throws IOException {
+        out.append(featureLocation.fileName()).append(":[");
+        appendNumber(out, featureLocation.lineNumber());
+        out.append(',');
+        appendNumber(out, featureLocation.columnNumber());
+        out.append(']');
+    }
+
+    /**
+     * Appends an indented line with the location, annotation and pattern of the step definition.
+     */
+    private static void appendStepDefinition(Appendable out, CukeInspectorStepDefinition stepDefinition) throws IOException {
+        out.append("   ").append(stepDefinition.getLocation())
+                .append(": @").append(stepDefinition.getCucumberAnnotation())
+                .append("(\"").append(stepDefinition.getPattern()).append("\")")
+                .append(NEW_LINE);
+    }
+
+    private static void appendNumber(Appendable out, int number) throws IOException {
+        if (number == FeatureLocation.UNKNOWN) {
+            out.append("null");
+        } else if (out instanceof StringBuilder sb) {
+            sb.append(number);
+        } else {
+            out.append(Integer.toString(number));
+        }
     }
 }
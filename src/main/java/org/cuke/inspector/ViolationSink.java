@@ -0,0 +1,29 @@
+package org.cuke.inspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Receives violations as soon as the checks find them, instead of collecting all of them first.
+ * The inspection passes one violation at a time and waits for the sink, also when the checkers run
+ * concurrently, so a sink need not be thread-safe and a slow sink slows the inspection down instead
+ * of letting violations pile up in memory.
+ */
+@FunctionalInterface
+public interface ViolationSink {
+
+    /**
+     * @return {@code false} if no more violations are wanted, which stops the inspection
+     */
+    boolean accept(CukeViolation violation);
+
+    /**
+     * Passes the first violations on to the sink and stops the inspection after the given number.
+     */
+    static ViolationSink failFast(int maxViolations, ViolationSink sink) {
+        if (maxViolations < 1) {
+            throw new IllegalArgumentException("At least one violation has to be accepted, got " + maxViolations);
+        }
+        AtomicInteger accepted = new AtomicInteger();
+        return violation -> sink.accept(violation) && accepted.incrementAndGet() < maxViolations;
+    }
+}
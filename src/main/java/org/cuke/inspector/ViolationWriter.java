@@ -0,0 +1,46 @@
+package org.cuke.inspector;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes every violation as soon as it is found, formatted like the message of a failed
+ * {@link CukeInspector#hasNoViolations()}. Only the buffer of the writer is kept in memory, however
+ * many violations are found.
+ */
+public final class ViolationWriter implements ViolationSink, Closeable {
+    private final Writer writer;
+    private long violationCount;
+
+    public ViolationWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public static ViolationWriter toFile(Path file) throws IOException {
+        return new ViolationWriter(Files.newBufferedWriter(file));
+    }
+
+    @Override
+    public boolean accept(CukeViolation violation) {
+        try {
+            violation.formatTo(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write violation", e);
+        }
+        violationCount++;
+        return true;
+    }
+
+    public long getViolationCount() {
+        return violationCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
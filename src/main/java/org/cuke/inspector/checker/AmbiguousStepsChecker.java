@@ -0,0 +1,76 @@
+package org.cuke.inspector.checker;
+
+import org.cuke.inspector.CucumberSupplier;
+import org.cuke.inspector.CukeInspectorStepDefinition;
+import org.cuke.inspector.CukeViolation;
+import org.cuke.inspector.FeatureLocation;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class AmbiguousStepsChecker implements CukeChecker {
+
+    @Override
+    public List<CukeViolation> inspect(CucumberSupplier cucumberSupplier) {
+        return cucumberSupplier.getStepMatchTable().getAmbiguousSteps().entrySet().stream()
+                .map(AmbiguousStepViolation::buildViolation)
+                .toList();
+    }
+
+    @Override
+    public Set<CucumberSupplier.Artifact> requiredArtifacts() {
+        return EnumSet.of(CucumberSupplier.Artifact.FEATURES, CucumberSupplier.Artifact.GLUE);
+    }
+
+    static class AmbiguousStepViolation implements CukeViolation {
+        private static final String MESSAGE_TEMPLATE = "The Gherkin step '%s' matches %d step definitions.";
+
+        private final String message;
+        private final List<CukeInspectorStepDefinition> steps;
+
+        public static CukeViolation buildViolation(Map.Entry<String, List<CukeInspectorStepDefinition>> ambiguousStep) {
+            return new AmbiguousStepViolation(
+                    MESSAGE_TEMPLATE.formatted(ambiguousStep.getKey(), ambiguousStep.getValue().size()), ambiguousStep.getValue());
+        }
+
+        public AmbiguousStepViolation(String message, List<CukeInspectorStepDefinition> steps) {
+            this.message = message;
+            this.steps = steps;
+        }
+
+        @Override
+        public String ruleDescription() {
+            return "A Gherkin step must match only one step definition.";
+        }
+
+        @Override
+        public String message() {
+            return message;
+        }
+
+        @Override
+        public FeatureLocation featureLocation() {
+            return null;
+        }
+
+        @Override
+        public List<FeatureLocation> featureLocations() {
+            return List.of();
+        }
+
+        @Override
+        public List<CukeInspectorStepDefinition> stepDefinitions() {
+            return steps;
+        }
+
+        @Override
+        public String toString() {
+            return "AmbiguousStepViolation{" +
+                    "message='" + message + '\'' +
+                    ", steps=" + steps +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.cuke.inspector.checker;
+
+import org.cuke.inspector.CucumberSupplier;
+import org.cuke.inspector.CukeViolation;
+import org.cuke.inspector.ParsedFeature;
+import org.cuke.inspector.ViolationSink;
+
+import java.util.Collection;
+import java.util.Set;
+
+public interface CukeChecker {
+    Collection<CukeViolation> inspect(CucumberSupplier cucumberSupplier);
+
+    /**
+     * What the checker reads from the supplier, so it can be prepared in the background while other
+     * checkers run. Checkers which do not tell get it when they ask for it.
+     */
+    default Set<CucumberSupplier.Artifact> requiredArtifacts() {
+        return Set.of();
+    }
+
+    /**
+     * Checks again after some feature files changed, see {@link org.cuke.inspector.CukeInspector#inspectChanged(Set)}.
+     * The supplier is already refreshed. Checkers which keep their results per feature file override
+     * it to check only the changed features; by default the whole supplier is inspected again.
+     *
+     * @param changedFeatures the features parsed from the changed files
+     * @param changedUris     the URIs of all changed files, including deleted ones
+     */
+    default Collection<CukeViolation> inspectChanged(CucumberSupplier cucumberSupplier, Collection<ParsedFeature> changedFeatures,
+                                                     Set<String> changedUris) {
+        return inspect(cucumberSupplier);
+    }
+
+    /**
+     * Pushes the violations into the sink. Checkers which find many violations override it to push
+     * them while they are found instead of collecting them first.
+     *
+     * @return {@code false} if the sink stopped the inspection
+     */
+    default boolean inspect(CucumberSupplier cucumberSupplier, ViolationSink sink) {
+        for (CukeViolation violation : inspect(cucumberSupplier)) {
+            if (!sink.accept(violation)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -2,41 +2,103 @@ package org.cuke.inspector.checker;
 
 import io.cucumber.messages.types.GherkinDocument;
 import io.cucumber.messages.types.Scenario;
-import org.cuke.inspector.CucumberSupplier;
 import org.cuke.inspector.CukeViolation;
 import org.cuke.inspector.FeatureLocation;
 
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.*;
 import java.util.stream.Stream;
 
-import static org.cuke.inspector.checker.CucumberStreamingHelper.scenarioStream;
+/**
+ * Keeps only a compact location of every scenario, not the scenario or its document, so the
+ * documents can be released while they are walked. The index is keyed by the hash of the scenario
+ * name and holds no name of its own: the name is only read from the locations, to tell apart the
+ * scenarios of a bucket whose names have the same hash.
+ */
+public class DuplicateScenariosChecker extends GherkinDocumentChecker {
+
+    private static final String UNKNOWN_URI = "unknown uri";
+
+    private final Map<Integer, List<FeatureLocation>> locationsByNameHash = new LinkedHashMap<>();
+    // the same locations by document, so a changed document can be taken out of the index
+    private final Map<String, List<FeatureLocation>> scenariosByDocument = new HashMap<>();
+
+    /**
+     * A document visited again first takes its old scenarios out of the index, so the index is
+     * updated by the changed documents only.
+     */
+    @Override
+    public void visitGherkinDocument(GherkinDocument gherkinDocument) {
+        super.visitGherkinDocument(gherkinDocument);
+        removeScenariosOf(gherkinDocument.getUri().orElse(null));
+    }
 
-public class DuplicateScenariosChecker {
+    @Override
+    public void forgetGherkinDocument(String uri) {
+        super.forgetGherkinDocument(uri);
+        removeScenariosOf(uri);
+    }
 
-    public List<CukeViolation> inspect(CucumberSupplier cucumberSupplier) {
-        Map<String, List<ScenarioWithGherkinDocument>> groupedByScenarioName = cucumberSupplier.getGherkinDocuments().stream()
-                .flatMap(DuplicateScenariosChecker::combineScenariosWithDoc)
-                .collect(Collectors.groupingBy(
-                        combination -> combination.scenario().getName(),
-                        Collectors.toList()
-                ));
+    @Override
+    public void visitScenario(GherkinDocument gherkinDocument, Scenario scenario) {
+        addScenario(new FeatureLocation(gherkinDocument.getUri(),
+                scenario.getName(),
+                scenario.getLocation().getLine(),
+                scenario.getLocation().getColumn()));
+    }
 
-        return groupedByScenarioName.values().stream()
-                .filter(entry -> entry.size() > 1)
-                .map(DuplicatedScenariosViolation::buildViolation)
-                .toList();
+    /**
+     * Adds a scenario which is only known by its location, e.g. from a shard. The token name of the
+     * location is the name of the scenario.
+     */
+    public void addScenario(FeatureLocation scenario) {
+        // most names are unique, so most lists never grow
+        locationsByNameHash
+                .computeIfAbsent(scenario.tokenName().hashCode(), hash -> new ArrayList<>(1))
+                .add(scenario);
+        scenariosByDocument
+                .computeIfAbsent(scenario.fileName(), uri -> new ArrayList<>())
+                .add(scenario);
+    }
+
+    private void removeScenariosOf(String uri) {
+        // documents without uri have the file name of their locations
+        String fileName = uri == null ? UNKNOWN_URI : uri;
+        List<FeatureLocation> scenarios = scenariosByDocument.remove(fileName);
+        if (scenarios == null) {
+            return;
+        }
+        for (FeatureLocation scenario : scenarios) {
+            Integer nameHash = scenario.tokenName().hashCode();
+            List<FeatureLocation> locations = locationsByNameHash.get(nameHash);
+            locations.removeIf(location -> location == scenario);
+            if (locations.isEmpty()) {
+                locationsByNameHash.remove(nameHash);
+            }
+        }
     }
 
-    private static Stream<ScenarioWithGherkinDocument> combineScenariosWithDoc(GherkinDocument doc) {
-        return doc.getFeature()
-                .map(feature -> scenarioStream(feature)
-                        .map(scenario -> new ScenarioWithGherkinDocument(scenario, doc)))
-                .orElseGet(Stream::empty);
+    /**
+     * Duplicates are only known after all documents have been visited.
+     */
+    @Override
+    public List<CukeViolation> getViolations() {
+        return locationsByNameHash.values().stream()
+                .filter(locations -> locations.size() > 1)
+                .flatMap(DuplicateScenariosChecker::duplicatesOf)
+                .toList();
     }
 
-    public record ScenarioWithGherkinDocument(Scenario scenario, GherkinDocument doc) {
+    private static Stream<CukeViolation> duplicatesOf(List<FeatureLocation> locations) {
+        String firstName = locations.getFirst().tokenName();
+        if (locations.stream().allMatch(location -> location.tokenName().equals(firstName))) {
+            return Stream.of(DuplicatedScenariosViolation.buildViolation(firstName, locations));
+        }
+        // different names with the same hash
+        Map<String, List<FeatureLocation>> locationsByName = new LinkedHashMap<>();
+        locations.forEach(location -> locationsByName.computeIfAbsent(location.tokenName(), name -> new ArrayList<>()).add(location));
+        return locationsByName.entrySet().stream()
+                .filter(entry -> entry.getValue().size() > 1)
+                .map(entry -> DuplicatedScenariosViolation.buildViolation(entry.getKey(), entry.getValue()));
     }
 
     static class DuplicatedScenariosViolation implements CukeViolation {
@@ -44,16 +106,9 @@ public class DuplicateScenariosChecker {
         private final String message;
         private final List<FeatureLocation> locations;
 
-        public static CukeViolation buildViolation(final List<ScenarioWithGherkinDocument> scenarios) {
+        public static CukeViolation buildViolation(String scenarioName, List<FeatureLocation> locations) {
             return new DuplicatedScenariosViolation(
-                    SCENARIO_MESSAGE.formatted(scenarios.getFirst().scenario().getName(), scenarios.size()),
-                    scenarios.stream()
-                            .map(combination ->
-                                    new FeatureLocation(combination.doc().getUri(),
-                                            combination.scenario().getName(),
-                                            combination.scenario().getLocation().getLine(),
-                                            combination.scenario().getLocation().getColumn()))
-                            .toList());
+                    SCENARIO_MESSAGE.formatted(scenarioName, locations.size()), List.copyOf(locations));
         }
 
         public DuplicatedScenariosViolation(String message, List<FeatureLocation> locations) {
@@ -61,6 +116,11 @@ public class DuplicateScenariosChecker {
             this.locations = locations;
         }
 
+        @Override
+        public String ruleDescription() {
+            return "Scenario names must be unique in all feature files.";
+        }
+
         @Override
         public String message() {
             return message;
@@ -76,16 +136,6 @@ public class DuplicateScenariosChecker {
             return locations;
         }
 
-        @Override
-        public String format() {
-            StringBuilder sb = new StringBuilder();
-            sb.append("%n%s%n".formatted(message()));
-            featureLocations().forEach(location ->
-                    sb.append("   %s:[%d,%d] %n".formatted(location.fileName(), location.line(), location.column()))
-            );
-            return sb.toString();
-        }
-
         @Override
         public String toString() {
             return "DuplicatedScenariosViolation{" +
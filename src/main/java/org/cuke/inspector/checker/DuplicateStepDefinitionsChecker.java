@@ -6,9 +6,11 @@ import org.cuke.inspector.CukeViolation;
 import org.cuke.inspector.FeatureLocation;
 
 import java.util.List;
+import java.util.Set;
 
-public class DuplicateStepDefinitionsChecker {
+public class DuplicateStepDefinitionsChecker implements CukeChecker {
 
+    @Override
     public List<CukeViolation> inspect(CucumberSupplier cucumberSupplier) {
         return cucumberSupplier.getGlue().getStepDefinitionsByPattern().values().stream()
                 .filter(entry -> entry.size() > 1)
@@ -16,6 +18,11 @@ public class DuplicateStepDefinitionsChecker {
                 .toList();
     }
 
+    @Override
+    public Set<CucumberSupplier.Artifact> requiredArtifacts() {
+        return Set.of(CucumberSupplier.Artifact.GLUE);
+    }
+
     static class DuplicateStepDefinitionsViolation implements CukeViolation {
         private static final String SCENARIO_MESSAGE = "The step definition expression '%s' was found %d times.";
 
@@ -33,6 +40,11 @@ public class DuplicateStepDefinitionsChecker {
             this.steps = steps;
         }
 
+        @Override
+        public String ruleDescription() {
+            return "Step definition expressions must be unique.";
+        }
+
         @Override
         public String message() {
             return message;
@@ -49,13 +61,8 @@ public class DuplicateStepDefinitionsChecker {
         }
 
         @Override
-        public String format() {
-            StringBuilder sb = new StringBuilder();
-            sb.append("%n%s%n".formatted(message()));
-            steps.forEach(stepDefinition ->
-                    sb.append("   %s: @%s(\"%s\")%n".formatted(stepDefinition.getLocation(), stepDefinition.getCucumberAnnotation(), stepDefinition.getPattern()))
-            );
-            return sb.toString();
+        public List<CukeInspectorStepDefinition> stepDefinitions() {
+            return steps;
         }
 
         @Override
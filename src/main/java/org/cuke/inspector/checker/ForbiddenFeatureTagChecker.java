@@ -2,15 +2,13 @@ package org.cuke.inspector.checker;
 
 import io.cucumber.messages.types.Feature;
 import io.cucumber.messages.types.GherkinDocument;
-import org.cuke.inspector.CucumberSupplier;
 import org.cuke.inspector.CukeViolation;
 import org.cuke.inspector.FeatureLocation;
 
-import java.util.Collection;
 import java.util.Objects;
 import java.util.regex.Pattern;
 
-public class ForbiddenFeatureTagChecker {
+public class ForbiddenFeatureTagChecker extends GherkinDocumentChecker {
 
     private final Pattern forbiddenTagPattern;
 
@@ -20,21 +18,22 @@ public class ForbiddenFeatureTagChecker {
         forbiddenTagPattern = Pattern.compile(forbiddenRegex);
     }
 
-    public Collection<CukeViolation> inspect(CucumberSupplier cucumberSupplier) {
-        return cucumberSupplier.getGherkinDocuments().stream()
-                .flatMap(gherkinDocument -> {
-                    Feature feature = gherkinDocument.getFeature().orElseThrow(() -> new RuntimeException("No feature in " + gherkinDocument.getUri()));
-
-                    return feature.getTags().stream()
-                            .filter(tag -> forbiddenTagPattern.matcher(tag.getName()).matches())
-                            .map(tag -> ForbiddenFeatureTagChecker.ForbiddenFeatureTagViolation.build(gherkinDocument, feature, tag.getName()));
-                })
-                .toList();
+    @Override
+    public void visitFeature(GherkinDocument gherkinDocument, Feature feature) {
+        feature.getTags().stream()
+                .filter(tag -> forbiddenTagPattern.matcher(tag.getName()).matches())
+                .map(tag -> ForbiddenFeatureTagViolation.build(gherkinDocument, feature, tag.getName()))
+                .forEach(this::report);
     }
 
     record ForbiddenFeatureTagViolation(String message, FeatureLocation featureLocation) implements CukeViolation {
         private static final String FEATURE_MESSAGE = "Feature '%s' contains forbidden tag: %s.";
 
+        @Override
+        public String ruleDescription() {
+            return "Features must not have a forbidden tag.";
+        }
+
         private static CukeViolation build(GherkinDocument gherkinDocument, Feature feature, String forbiddenTagName) {
             return new ForbiddenFeatureTagViolation(
                     FEATURE_MESSAGE.formatted(feature.getName(), forbiddenTagName),
@@ -0,0 +1,74 @@
+package org.cuke.inspector.checker;
+
+import io.cucumber.messages.types.GherkinDocument;
+import org.cuke.inspector.CucumberSupplier;
+import org.cuke.inspector.CukeViolation;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A checker which only needs the Gherkin documents. It reports violations while it is visited,
+ * so several of them can share one walk over the documents.
+ * <p>
+ * The violations are kept per document, in the URI order of the documents like the features of
+ * the builder. Visiting a document again replaces its violations, so a changed file can be checked
+ * without walking the unchanged ones, and an added file gets the position it has in a full inspection.
+ */
+public abstract class GherkinDocumentChecker implements CukeChecker, GherkinDocumentVisitor {
+
+    private final Map<String, List<CukeViolation>> violationsByDocument = new TreeMap<>(
+            Comparator.nullsFirst(Comparator.comparing(URI::create)));
+    private List<CukeViolation> currentViolations = new ArrayList<>();
+
+    /**
+     * Overriding checkers have to call this first.
+     */
+    @Override
+    public void visitGherkinDocument(GherkinDocument gherkinDocument) {
+        currentViolations = new ArrayList<>();
+        violationsByDocument.put(gherkinDocument.getUri().orElse(null), currentViolations);
+    }
+
+    /**
+     * Drops everything known about a document, e.g. because its file was deleted.
+     */
+    public void forgetGherkinDocument(String uri) {
+        violationsByDocument.remove(uri);
+    }
+
+    /**
+     * Removes the violations of a document, e.g. because they were passed on, but keeps everything
+     * else known about it.
+     */
+    public List<CukeViolation> takeViolations(String uri) {
+        List<CukeViolation> violations = violationsByDocument.remove(uri);
+        return violations == null ? List.of() : violations;
+    }
+
+    protected void report(CukeViolation violation) {
+        currentViolations.add(violation);
+    }
+
+    public List<CukeViolation> getViolations() {
+        return violationsByDocument.values().stream()
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    @Override
+    public List<CukeViolation> inspect(CucumberSupplier cucumberSupplier) {
+        GherkinDocumentWalker.walk(cucumberSupplier.gherkinDocumentStream(), List.of(this));
+        return getViolations();
+    }
+
+    @Override
+    public Set<CucumberSupplier.Artifact> requiredArtifacts() {
+        return Set.of(CucumberSupplier.Artifact.FEATURES);
+    }
+}
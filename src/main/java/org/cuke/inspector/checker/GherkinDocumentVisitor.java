@@ -0,0 +1,37 @@
+package org.cuke.inspector.checker;
+
+import io.cucumber.messages.types.*;
+
+/**
+ * Callbacks for the nodes of a Gherkin document, called by {@link GherkinDocumentWalker} in document order.
+ * A feature is visited before its children, so a visitor can keep state about the current feature.
+ */
+public interface GherkinDocumentVisitor {
+
+    /**
+     * Called once per document before any of its nodes, also for documents without a feature.
+     */
+    default void visitGherkinDocument(GherkinDocument gherkinDocument) {
+    }
+
+    default void visitFeature(GherkinDocument gherkinDocument, Feature feature) {
+    }
+
+    default void visitRule(GherkinDocument gherkinDocument, Rule rule) {
+    }
+
+    default void visitBackground(GherkinDocument gherkinDocument, Background background) {
+    }
+
+    default void visitScenario(GherkinDocument gherkinDocument, Scenario scenario) {
+    }
+
+    default void visitStep(GherkinDocument gherkinDocument, Step step) {
+    }
+
+    /**
+     * Called for the tags of features, rules, scenarios and examples.
+     */
+    default void visitTag(GherkinDocument gherkinDocument, Tag tag) {
+    }
+}
@@ -0,0 +1,71 @@
+package org.cuke.inspector.checker;
+
+import io.cucumber.messages.types.*;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Walks Gherkin documents once and calls all visitors for every node, so any number of
+ * rules costs a single traversal.
+ */
+public final class GherkinDocumentWalker {
+
+    private GherkinDocumentWalker() {
+        // don't create helper with static methods
+    }
+
+    public static void walk(Stream<GherkinDocument> gherkinDocuments, List<? extends GherkinDocumentVisitor> visitors) {
+        gherkinDocuments.forEach(gherkinDocument -> walk(gherkinDocument, visitors));
+    }
+
+    public static void walk(GherkinDocument gherkinDocument, List<? extends GherkinDocumentVisitor> visitors) {
+        visitors.forEach(visitor -> visitor.visitGherkinDocument(gherkinDocument));
+        gherkinDocument.getFeature().ifPresent(feature -> walkFeature(gherkinDocument, feature, visitors));
+    }
+
+    private static void walkFeature(GherkinDocument gherkinDocument, Feature feature, List<? extends GherkinDocumentVisitor> visitors) {
+        visitors.forEach(visitor -> visitor.visitFeature(gherkinDocument, feature));
+        walkTags(gherkinDocument, feature.getTags(), visitors);
+
+        for (FeatureChild child : feature.getChildren()) {
+            child.getBackground().ifPresent(background -> walkBackground(gherkinDocument, background, visitors));
+            child.getScenario().ifPresent(scenario -> walkScenario(gherkinDocument, scenario, visitors));
+            child.getRule().ifPresent(rule -> walkRule(gherkinDocument, rule, visitors));
+        }
+    }
+
+    private static void walkRule(GherkinDocument gherkinDocument, Rule rule, List<? extends GherkinDocumentVisitor> visitors) {
+        visitors.forEach(visitor -> visitor.visitRule(gherkinDocument, rule));
+        walkTags(gherkinDocument, rule.getTags(), visitors);
+
+        for (RuleChild child : rule.getChildren()) {
+            child.getBackground().ifPresent(background -> walkBackground(gherkinDocument, background, visitors));
+            child.getScenario().ifPresent(scenario -> walkScenario(gherkinDocument, scenario, visitors));
+        }
+    }
+
+    private static void walkBackground(GherkinDocument gherkinDocument, Background background, List<? extends GherkinDocumentVisitor> visitors) {
+        visitors.forEach(visitor -> visitor.visitBackground(gherkinDocument, background));
+        walkSteps(gherkinDocument, background.getSteps(), visitors);
+    }
+
+    private static void walkScenario(GherkinDocument gherkinDocument, Scenario scenario, List<? extends GherkinDocumentVisitor> visitors) {
+        visitors.forEach(visitor -> visitor.visitScenario(gherkinDocument, scenario));
+        walkTags(gherkinDocument, scenario.getTags(), visitors);
+        walkSteps(gherkinDocument, scenario.getSteps(), visitors);
+        scenario.getExamples().forEach(examples -> walkTags(gherkinDocument, examples.getTags(), visitors));
+    }
+
+    private static void walkSteps(GherkinDocument gherkinDocument, List<Step> steps, List<? extends GherkinDocumentVisitor> visitors) {
+        for (Step step : steps) {
+            visitors.forEach(visitor -> visitor.visitStep(gherkinDocument, step));
+        }
+    }
+
+    private static void walkTags(GherkinDocument gherkinDocument, List<Tag> tags, List<? extends GherkinDocumentVisitor> visitors) {
+        for (Tag tag : tags) {
+            visitors.forEach(visitor -> visitor.visitTag(gherkinDocument, tag));
+        }
+    }
+}
@@ -5,40 +5,31 @@ import io.cucumber.gherkin.GherkinDialectProvider;
 import io.cucumber.messages.types.Feature;
 import io.cucumber.messages.types.GherkinDocument;
 import io.cucumber.messages.types.Step;
-import org.cuke.inspector.CucumberSupplier;
 import org.cuke.inspector.CukeViolation;
 import org.cuke.inspector.FeatureLocation;
 
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
 
-import static org.cuke.inspector.checker.CucumberStreamingHelper.stepStream;
-
-public class InvalidStepKeywordChecker {
+public class InvalidStepKeywordChecker extends GherkinDocumentChecker {
     private final List<String> forbiddenStepKeywords;
+    private final Map<String, List<String>> normalizedForbiddenStepKeywordsByLanguage = new HashMap<>();
+    private List<String> normalizedForbiddenStepKeywords = List.of();
 
     public InvalidStepKeywordChecker(List<String> forbiddenStepKeywords) {
         this.forbiddenStepKeywords = Collections.unmodifiableList(forbiddenStepKeywords);
     }
 
-    public Collection<CukeViolation> inspect(CucumberSupplier cucumberSupplier) {
-        return cucumberSupplier.getGherkinDocuments().stream()
-                .flatMap(gherkinDocument -> {
-                    Feature feature = gherkinDocument.getFeature().orElseThrow(() -> new RuntimeException("No feature in " + gherkinDocument.getUri()));
-                    return inspect(gherkinDocument, feature).stream();
-                })
-                .toList();
+    @Override
+    public void visitFeature(GherkinDocument gherkinDocument, Feature feature) {
+        normalizedForbiddenStepKeywords = normalizedForbiddenStepKeywordsByLanguage.computeIfAbsent(feature.getLanguage(),
+                language -> normalizeToCucumberStepKeywords(forbiddenStepKeywords, language));
     }
 
-    private List<CukeViolation> inspect(GherkinDocument gherkinDocument, Feature feature) {
-        List<String> normalizedForbiddenStepKeywords = normalizeToCucumberStepKeywords(forbiddenStepKeywords, feature.getLanguage());
-
-        return stepStream(feature)
-                .filter(step -> normalizedForbiddenStepKeywords.contains(step.getKeyword()))
-                .map(step -> InvalidStepKeywordViolation.buildViolation(gherkinDocument, step))
-                .toList();
+    @Override
+    public void visitStep(GherkinDocument gherkinDocument, Step step) {
+        if (normalizedForbiddenStepKeywords.contains(step.getKeyword())) {
+            report(InvalidStepKeywordViolation.buildViolation(gherkinDocument, step));
+        }
     }
 
     private static List<String> normalizeToCucumberStepKeywords(List<String> inputKeywords, String language) {
@@ -55,6 +46,11 @@ public class InvalidStepKeywordChecker {
 
         private static final String STEP_MESSAGE = "Step '%s' starts with invalid step keyword: '%s'.";
 
+        @Override
+        public String ruleDescription() {
+            return "Steps must not start with a forbidden keyword.";
+        }
+
         private static CukeViolation buildViolation(GherkinDocument gherkinDocument, Step step) {
             return new InvalidStepKeywordViolation(
                     STEP_MESSAGE.formatted(step.getText(), step.getKeyword()),
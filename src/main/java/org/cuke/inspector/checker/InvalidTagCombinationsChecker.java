@@ -4,47 +4,44 @@ import io.cucumber.messages.types.Feature;
 import io.cucumber.messages.types.GherkinDocument;
 import io.cucumber.messages.types.Scenario;
 import io.cucumber.messages.types.Tag;
-import org.cuke.inspector.CucumberSupplier;
 import org.cuke.inspector.CukeViolation;
 import org.cuke.inspector.FeatureLocation;
 
-import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static org.cuke.inspector.checker.CucumberStreamingHelper.scenarioStream;
-
-public class InvalidTagCombinationsChecker {
+public class InvalidTagCombinationsChecker extends GherkinDocumentChecker {
     private final Set<String> invalidTagCombinations;
+    private Feature currentFeature;
+    private boolean currentFeatureViolated;
 
     public InvalidTagCombinationsChecker(Set<String> invalidTagCombinations) {
         this.invalidTagCombinations = invalidTagCombinations;
     }
 
-    public Collection<CukeViolation> inspect(CucumberSupplier cucumberSupplier) {
-        return cucumberSupplier.getGherkinDocuments().stream()
-                .flatMap(gherkinDocument -> {
-                    Feature feature = gherkinDocument.getFeature().orElseThrow(() -> new RuntimeException("No feature in " + gherkinDocument.getUri()));
-                    return inspect(gherkinDocument, feature).stream();
-                })
-                .toList();
-    }
+    @Override
+    public void visitFeature(GherkinDocument gherkinDocument, Feature feature) {
+        currentFeature = feature;
+        currentFeatureViolated = !invalidTagCombinations.isEmpty()
+                && containsInvalidTagCombinations(feature.getTags(), invalidTagCombinations);
 
-    private List<CukeViolation> inspect(GherkinDocument gherkinDocument, Feature feature) {
-        if (invalidTagCombinations.isEmpty()) {
-            return List.of();
+        // a feature with an invalid combination is reported once instead of every scenario
+        if (currentFeatureViolated) {
+            report(InvalidTagCombinationViolation.build(gherkinDocument, feature, invalidTagCombinations));
         }
+    }
 
-        if (containsInvalidTagCombinations(feature.getTags(), invalidTagCombinations)) {
-            return List.of(InvalidTagCombinationViolation.build(gherkinDocument, feature, invalidTagCombinations));
+    @Override
+    public void visitScenario(GherkinDocument gherkinDocument, Scenario scenario) {
+        if (invalidTagCombinations.isEmpty() || currentFeatureViolated) {
+            return;
         }
 
-        return scenarioStream(feature)
-                .filter(scenario -> containsInvalidTagCombinations(mergeTags(feature, scenario), invalidTagCombinations))
-                .map(scenario -> InvalidTagCombinationViolation.build(gherkinDocument, scenario, invalidTagCombinations))
-                .toList();
+        if (containsInvalidTagCombinations(mergeTags(currentFeature, scenario), invalidTagCombinations)) {
+            report(InvalidTagCombinationViolation.build(gherkinDocument, scenario, invalidTagCombinations));
+        }
     }
 
     private static boolean containsInvalidTagCombinations(List<Tag> tagList, Set<String> invalidTagCombination) {
@@ -66,6 +63,11 @@ public class InvalidTagCombinationsChecker {
         private static final String FEATURE_MESSAGE = "Feature '%s' contains invalid tag combination: %s.";
         private static final String SCENARIO_MESSAGE = "Scenario '%s' contains invalid tag combination: %s";
 
+        @Override
+        public String ruleDescription() {
+            return "Features and scenarios must not combine the given tags.";
+        }
+
         private static CukeViolation build(GherkinDocument gherkinDocument, Feature feature, Set<String> invalidTagCombination) {
             return new InvalidTagCombinationViolation(
                     formatMessage(FEATURE_MESSAGE, feature.getName(), invalidTagCombination),
@@ -100,8 +102,8 @@ public class InvalidTagCombinationsChecker {
         }
 
         @Override
-        public String format() {
-            return "";
+        public void formatTo(Appendable out) {
+            // reported without details
         }
     }
 }
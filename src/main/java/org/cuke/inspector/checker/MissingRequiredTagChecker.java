@@ -1,17 +1,13 @@
 package org.cuke.inspector.checker;
 
-import io.cucumber.messages.types.Feature;
 import io.cucumber.messages.types.GherkinDocument;
 import io.cucumber.messages.types.Scenario;
-import org.cuke.inspector.CucumberSupplier;
 import org.cuke.inspector.CukeViolation;
 import org.cuke.inspector.FeatureLocation;
 
-import java.util.Collection;
-import java.util.List;
 import java.util.regex.Pattern;
 
-public class MissingRequiredTagChecker {
+public class MissingRequiredTagChecker extends GherkinDocumentChecker {
 
     private final Pattern requiredTagPattern;
 
@@ -19,26 +15,21 @@ public class MissingRequiredTagChecker {
         requiredTagPattern = Pattern.compile(requiredRegex);
     }
 
-    public Collection<CukeViolation> inspect(CucumberSupplier cucumberSupplier) {
-        return cucumberSupplier.getGherkinDocuments().stream()
-                .flatMap(gherkinDocument -> {
-                    Feature feature = gherkinDocument.getFeature().orElseThrow(() -> new RuntimeException("No feature in " + gherkinDocument.getUri()));
-                    return inspect(gherkinDocument, feature).stream();
-                })
-                .toList();
-    }
-
-    private List<CukeViolation> inspect(GherkinDocument gherkinDocument, Feature feature) {
-        return CucumberStreamingHelper.scenarioStream(feature)
-                .filter(scenario -> scenario.getTags().stream()
-                        .noneMatch(tag -> requiredTagPattern.matcher(tag.getName()).find()))
-                .map(scenario -> MissingRequiredTagViolation.buildViolation(gherkinDocument, scenario))
-                .toList();
+    @Override
+    public void visitScenario(GherkinDocument gherkinDocument, Scenario scenario) {
+        if (scenario.getTags().stream().noneMatch(tag -> requiredTagPattern.matcher(tag.getName()).find())) {
+            report(MissingRequiredTagViolation.buildViolation(gherkinDocument, scenario));
+        }
     }
 
     record MissingRequiredTagViolation(String message, FeatureLocation featureLocation) implements CukeViolation {
         private static final String SCENARIO_MESSAGE = "Scenario '%s' does not contain a reference tag to an User Story.";
 
+        @Override
+        public String ruleDescription() {
+            return "Scenarios must have a tag referencing a user story.";
+        }
+
         private static CukeViolation buildViolation(GherkinDocument gherkinDocument, Scenario scenario) {
             return new MissingRequiredTagViolation(
                     SCENARIO_MESSAGE.formatted(scenario.getName()),
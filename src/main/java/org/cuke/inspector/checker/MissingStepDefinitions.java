@@ -1,39 +1,132 @@
 package org.cuke.inspector.checker;
 
-import io.cucumber.core.gherkin.Feature;
-import io.cucumber.core.gherkin.Step;
+import io.cucumber.messages.types.GherkinDocument;
+import io.cucumber.messages.types.PickleStep;
+import io.cucumber.messages.types.Step;
 import org.cuke.inspector.CucumberSupplier;
-import org.cuke.inspector.CukeInspectorStepDefinition;
 import org.cuke.inspector.CukeViolation;
 import org.cuke.inspector.FeatureLocation;
+import org.cuke.inspector.ParsedFeature;
+import org.cuke.inspector.StepMatchTable;
+import org.cuke.inspector.ViolationSink;
 
-import java.util.Collection;
-import java.util.List;
+import java.net.URI;
+import java.util.*;
+import java.util.stream.Stream;
 
-public class MissingStepDefinitions {
+/**
+ * Works on the pickles and the Gherkin document instead of the Cucumber core feature, so features
+ * restored from the parse cache do not have to be parsed again.
+ * <p>
+ * Whether a step is implemented only depends on the glue, so the violations are kept per feature
+ * file like those of a {@link GherkinDocumentChecker}, and a changed file is checked on its own.
+ */
+public class MissingStepDefinitions implements CukeChecker {
+    private final Map<String, List<CukeViolation>> violationsByDocument = new TreeMap<>(
+            Comparator.nullsFirst(Comparator.comparing(URI::create)));
+
+    @Override
     public Collection<CukeViolation> inspect(CucumberSupplier cucumberSupplier) {
-        final List<CukeInspectorStepDefinition> cukeStepDefinitions = cucumberSupplier.getGlue().getCukeStepDefinitions();
-
-        return cucumberSupplier.getFeatures().stream()
-                .flatMap(feature -> feature.getPickles().stream()
-                        .flatMap(pickle -> pickle.getSteps().stream()
-                                .filter(stepExpression -> cukeStepDefinitions.stream()
-                                        .noneMatch(stepDefinition -> stepDefinition.getExpression().getSource().equals(stepExpression.getText())))
-                                .map(step -> MissingStepDefinitionViolation.buildViolation(feature, step))))
+        StepMatchTable stepMatchTable = cucumberSupplier.getStepMatchTable();
+        violationsByDocument.clear();
+        try (Stream<ParsedFeature> parsedFeatures = cucumberSupplier.parsedFeatureStream()) {
+            parsedFeatures.forEach(parsedFeature -> keepMissingSteps(parsedFeature, stepMatchTable));
+        }
+        return getViolations();
+    }
+
+    @Override
+    public Collection<CukeViolation> inspectChanged(CucumberSupplier cucumberSupplier, Collection<ParsedFeature> changedFeatures,
+                                                    Set<String> changedUris) {
+        StepMatchTable stepMatchTable = cucumberSupplier.getStepMatchTable();
+        changedUris.forEach(violationsByDocument::remove);
+        changedFeatures.forEach(parsedFeature -> keepMissingSteps(parsedFeature, stepMatchTable));
+        return getViolations();
+    }
+
+    // features without missing steps take no entry, most features of a suite have none
+    private void keepMissingSteps(ParsedFeature parsedFeature, StepMatchTable stepMatchTable) {
+        List<CukeViolation> violations = missingSteps(parsedFeature, stepMatchTable).toList();
+        if (!violations.isEmpty()) {
+            violationsByDocument.put(parsedFeature.gherkinDocument().getUri().orElse(null), violations);
+        }
+    }
+
+    private List<CukeViolation> getViolations() {
+        return violationsByDocument.values().stream()
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    /**
+     * Pushes the missing steps of every feature before the next one is parsed, when not retaining
+     * features.
+     */
+    @Override
+    public boolean inspect(CucumberSupplier cucumberSupplier, ViolationSink sink) {
+        final StepMatchTable stepMatchTable = cucumberSupplier.getStepMatchTable();
+
+        try (Stream<ParsedFeature> parsedFeatures = cucumberSupplier.parsedFeatureStream()) {
+            Iterator<ParsedFeature> iterator = parsedFeatures.iterator();
+            while (iterator.hasNext()) {
+                for (CukeViolation violation : missingSteps(iterator.next(), stepMatchTable).toList()) {
+                    if (!sink.accept(violation)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Set<CucumberSupplier.Artifact> requiredArtifacts() {
+        return EnumSet.of(CucumberSupplier.Artifact.FEATURES, CucumberSupplier.Artifact.GLUE);
+    }
+
+    private static Stream<CukeViolation> missingSteps(ParsedFeature parsedFeature, StepMatchTable stepMatchTable) {
+        List<PickleStep> missing = parsedFeature.pickles().stream()
+                .flatMap(pickle -> pickle.getSteps().stream())
+                .filter(step -> !stepMatchTable.isImplemented(step.getText()))
                 .toList();
+        if (missing.isEmpty()) {
+            return Stream.empty();
+        }
+
+        GherkinDocument gherkinDocument = parsedFeature.gherkinDocument();
+        Map<String, Step> stepsById = stepsById(gherkinDocument);
+        return missing.stream()
+                .map(pickleStep -> MissingStepDefinitionViolation.buildViolation(
+                        gherkinDocument, stepsById.get(pickleStep.getAstNodeIds().getFirst()), pickleStep));
+    }
+
+    private static Map<String, Step> stepsById(GherkinDocument gherkinDocument) {
+        Map<String, Step> stepsById = new HashMap<>();
+        GherkinDocumentWalker.walk(gherkinDocument, List.of(new GherkinDocumentVisitor() {
+            @Override
+            public void visitStep(GherkinDocument document, Step step) {
+                stepsById.put(step.getId(), step);
+            }
+        }));
+        return stepsById;
     }
 
     record MissingStepDefinitionViolation(String message,
                                           FeatureLocation featureLocation) implements CukeViolation {
         private static final String MESSAGE_TEMPLATE = "The Gherkin step '%s%s' has no Java implementation.";
 
-        public static CukeViolation buildViolation(Feature feature, Step step) {
+        @Override
+        public String ruleDescription() {
+            return "Every Gherkin step needs a step definition.";
+        }
+
+        public static CukeViolation buildViolation(GherkinDocument gherkinDocument, Step step, PickleStep pickleStep) {
             return new MissingStepDefinitionViolation(
-                    MESSAGE_TEMPLATE.formatted(step.getKeyword(), step.getText()),
-                    new FeatureLocation(feature.getUri().toString(),
-                            step.getText(),
-                            Long.valueOf(step.getLocation().getLine()),
-                            Long.valueOf(step.getLocation().getColumn())));
+                    MESSAGE_TEMPLATE.formatted(step.getKeyword(), pickleStep.getText()),
+                    new FeatureLocation(gherkinDocument.getUri(),
+                            pickleStep.getText(),
+                            step.getLocation().getLine(),
+                            step.getLocation().getColumn()));
         }
     }
 }
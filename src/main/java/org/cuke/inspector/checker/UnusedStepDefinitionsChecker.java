@@ -1,27 +1,33 @@
 package org.cuke.inspector.checker;
 
-import io.cucumber.core.gherkin.Step;
 import org.cuke.inspector.*;
 
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
-public class UnusedStepDefinitionsChecker {
+/**
+ * Reads which step definitions are used from the {@link StepMatchTable} of the supplier. The table
+ * matches every distinct step text once through the {@link StepDefinitionIndex}, so this check
+ * needs no index of its own and shares the matching with the missing and ambiguous step checks.
+ */
+public class UnusedStepDefinitionsChecker implements CukeChecker {
+    @Override
     public Collection<CukeViolation> inspect(CucumberSupplier cucumberSupplier) {
-        Set<String> stepsUsedInFeatureFiles = cucumberSupplier.getFeatures().stream()
-                .flatMap(feature -> feature.getPickles().stream())
-                .flatMap(pickle -> pickle.getSteps().stream())
-                .map(Step::getText)
-                .collect(Collectors.toSet());
+        StepMatchTable stepMatchTable = cucumberSupplier.getStepMatchTable();
 
         return cucumberSupplier.getGlue().getCukeStepDefinitions().stream()
-                .filter(stepDefinition -> stepDefinition.isNotUsedInAnyFeature(stepsUsedInFeatureFiles))
+                .filter(stepDefinition -> !stepMatchTable.isUsed(stepDefinition))
                 .map(UnusedStepDefinitionsViolation::buildViolation)
                 .toList();
     }
 
+    @Override
+    public Set<CucumberSupplier.Artifact> requiredArtifacts() {
+        return EnumSet.of(CucumberSupplier.Artifact.FEATURES, CucumberSupplier.Artifact.GLUE);
+    }
+
     static class UnusedStepDefinitionsViolation implements CukeViolation {
         private static final String MESSAGE_TEMPLATE = "The step definition '%s' is not used in any feature file.";
 
@@ -38,6 +44,16 @@ public class UnusedStepDefinitionsChecker {
             this.step = step;
         }
 
+        @Override
+        public String ruleDescription() {
+            return "Step definitions should be used by a feature file.";
+        }
+
+        @Override
+        public Severity severity() {
+            return Severity.WARNING;
+        }
+
         @Override
         public String message() {
             return message;
@@ -54,8 +70,8 @@ public class UnusedStepDefinitionsChecker {
         }
 
         @Override
-        public String format() {
-            return "%n%s%n   %s: @%s(\"%s\")%n".formatted(message(), step.getLocation(), step.getCucumberAnnotation(), step.getPattern());
+        public List<CukeInspectorStepDefinition> stepDefinitions() {
+            return List.of(step);
         }
     }
 }
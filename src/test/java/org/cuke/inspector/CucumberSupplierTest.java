@@ -0,0 +1,221 @@
+package org.cuke.inspector;
+
+import io.cucumber.core.gherkin.Feature;
+import io.cucumber.messages.types.GherkinDocument;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CucumberSupplierTest {
+
+    private static final Path FEATURE_FILE = Paths.get("src/test/resources/nousage/matching_steps.feature");
+
+    @Test
+    void shouldShareOneParseBetweenDocumentsAndFeatures() {
+        CucumberSupplier supplier = supplierFor(FEATURE_FILE);
+
+        GherkinDocument gherkinDocument = supplier.getGherkinDocuments().getFirst();
+        Feature feature = supplier.getFeatures().getFirst();
+
+        // ids are random per parse, so pickles only point into the document if both come from the same parse
+        String scenarioId = gherkinDocument.getFeature().orElseThrow()
+                .getChildren().getFirst()
+                .getScenario().orElseThrow()
+                .getId();
+        assertThat(supplier.getParsedFeatures().getFirst().pickles().getFirst().getAstNodeIds()).contains(scenarioId);
+        assertThat(supplier.getParsedFeatures().getFirst().feature()).isSameAs(feature);
+    }
+
+    @Test
+    void shouldParseFeaturesWithoutFileSystemAccess() {
+        CucumberSupplier supplier = new CucumberSupplier(
+                List.of(FeatureSource.of(URI.create("classpath:in/memory.feature"), new ByteArrayInputStream("""
+                        Feature: in memory
+                          Scenario: only a stream
+                            Given a step
+                        """.getBytes()))),
+                null);
+
+        assertThat(supplier.getFeatures()).hasSize(1);
+        assertThat(supplier.getFeatures().getFirst().getUri()).hasToString("classpath:in/memory.feature");
+    }
+
+    @Test
+    void shouldKeepSourceOrderWhenParsingInParallel() {
+        CucumberSupplier supplier = new CucumberSupplier(features(20, -1), null, 4, true);
+
+        assertThat(supplier.getGherkinDocuments())
+                .extracting(GherkinDocument::getUri)
+                .containsExactlyElementsOf(features(20, -1).stream().map(source -> Optional.of(source.uri().toString())).toList());
+    }
+
+    @Test
+    void shouldReportFirstBrokenFileWhenParsingInParallel() {
+        CucumberSupplier supplier = new CucumberSupplier(features(20, 7), null, 4, true);
+
+        assertThatThrownBy(supplier::getGherkinDocuments)
+                .hasMessageContaining("feature_07.feature");
+    }
+
+    @Test
+    void shouldRequireAtLeastOneParsingThread() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new CucumberSupplier(List.of(), null, 0, true));
+    }
+
+    @Test
+    void shouldParseAgainForEveryStreamWhenNotRetainingFeatures() {
+        CucumberSupplier supplier = new CucumberSupplier(List.of(FeatureSource.of(FEATURE_FILE)), null, 1, false);
+
+        GherkinDocument first = supplier.gherkinDocumentStream().findFirst().orElseThrow();
+        GherkinDocument second = supplier.gherkinDocumentStream().findFirst().orElseThrow();
+
+        assertThat(first).isNotSameAs(second);
+        assertThat(first.getUri()).isEqualTo(second.getUri());
+    }
+
+    @Test
+    void shouldKeepParsedFeaturesWhenRetainingFeatures() {
+        CucumberSupplier supplier = new CucumberSupplier(List.of(FeatureSource.of(FEATURE_FILE)), null);
+
+        GherkinDocument first = supplier.gherkinDocumentStream().findFirst().orElseThrow();
+        GherkinDocument second = supplier.gherkinDocumentStream().findFirst().orElseThrow();
+
+        assertThat(first).isSameAs(second);
+    }
+
+    @Test
+    void shouldComputeEverythingOnceForConcurrentCallers() throws Exception {
+        Map<URI, AtomicInteger> opened = new ConcurrentHashMap<>();
+        List<FeatureSource> sources = features(8, -1).stream()
+                .map(source -> countingOpens(source, opened))
+                .toList();
+        CucumberSupplier supplier = new CucumberSupplier(sources, URI.create("classpath:org.cuke.inspector.steps.matching.steps"), 4, true);
+
+        List<Callable<Object>> calls = List.of(supplier::getGherkinDocuments, supplier::getFeatures, supplier::getParsedFeatures,
+                supplier::getGlue, supplier::getStepMatchTable);
+        List<Future<Object>> results = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < 16 * calls.size(); i++) {
+                Callable<Object> call = calls.get(i % calls.size());
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+        }
+
+        assertThat(opened).hasSize(8).allSatisfy((uri, count) -> assertThat(count).hasValue(1));
+        for (int i = 0; i < results.size(); i++) {
+            assertThat(results.get(i).get()).isSameAs(calls.get(i % calls.size()).call());
+        }
+    }
+
+    @Test
+    void shouldParseFeaturesInBackgroundAfterPrefetch() throws InterruptedException {
+        Map<URI, AtomicInteger> opened = new ConcurrentHashMap<>();
+        CucumberSupplier supplier = new CucumberSupplier(List.of(countingOpens(FeatureSource.of(FEATURE_FILE), opened)), null);
+
+        supplier.prefetch(EnumSet.of(CucumberSupplier.Artifact.FEATURES));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (opened.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(opened).hasSize(1);
+        assertThat(supplier.getGherkinDocuments()).hasSize(1);
+        assertThat(opened.get(FEATURE_FILE.toUri())).hasValue(1);
+    }
+
+    @Test
+    void shouldNotParseFeaturesForChecksOnTheGlueOnly() {
+        Map<URI, AtomicInteger> opened = new ConcurrentHashMap<>();
+        CucumberSupplier supplier = new CucumberSupplier(List.of(countingOpens(FeatureSource.of(FEATURE_FILE), opened)),
+                URI.create("classpath:org.cuke.inspector.steps.matching.steps"));
+
+        new CukeInspector(supplier).findDuplicateStepDefinitions().getViolations();
+
+        assertThat(opened).isEmpty();
+    }
+
+    @Test
+    void shouldWaitForPrefetchBeforeRefreshing() throws Exception {
+        CountDownLatch opening = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FeatureSource blockingSource = new FeatureSource() {
+            @Override
+            public URI uri() {
+                return FEATURE_FILE.toUri();
+            }
+
+            @Override
+            public InputStream open() throws IOException {
+                opening.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return FeatureSource.of(FEATURE_FILE).open();
+            }
+        };
+        CucumberSupplier supplier = new CucumberSupplier(List.of(blockingSource), null);
+
+        supplier.prefetch(EnumSet.of(CucumberSupplier.Artifact.FEATURES));
+        assertThat(opening.await(10, TimeUnit.SECONDS)).isTrue();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<ParsedFeature>> refresh = executor.submit(() -> supplier.refresh(List.of()));
+            Thread.sleep(100);
+            assertThat(refresh).isNotDone();
+
+            release.countDown();
+            assertThat(refresh.get(10, TimeUnit.SECONDS)).isEmpty();
+        }
+        assertThat(supplier.getGherkinDocuments()).hasSize(1);
+    }
+
+    private static FeatureSource countingOpens(FeatureSource source, Map<URI, AtomicInteger> opened) {
+        return new FeatureSource() {
+            @Override
+            public URI uri() {
+                return source.uri();
+            }
+
+            @Override
+            public InputStream open() throws IOException {
+                opened.computeIfAbsent(source.uri(), uri -> new AtomicInteger()).incrementAndGet();
+                return source.open();
+            }
+        };
+    }
+
+    private static List<FeatureSource> features(int count, int firstBroken) {
+        List<FeatureSource> features = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String content = i >= firstBroken && firstBroken >= 0
+                    ? "this is not gherkin"
+                    : "Feature: feature %d\n  Scenario: scenario\n    Given a step\n".formatted(i);
+            features.add(FeatureSource.of(URI.create("classpath:features/feature_%02d.feature".formatted(i)), new ByteArrayInputStream(content.getBytes())));
+        }
+        return features;
+    }
+
+    private static CucumberSupplier supplierFor(Path file) {
+        return new CucumberSupplier(List.of(FeatureSource.of(file)), null);
+    }
+}
@@ -1,14 +1,18 @@
 package org.cuke.inspector;
 
+import io.cucumber.core.backend.JavaMethodReference;
 import io.cucumber.core.backend.SourceReference;
 import io.cucumber.core.backend.StepDefinition;
 import io.cucumber.core.stepexpression.StepExpression;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.Mockito;
 
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 
 class CukeInspectorStepDefinitionTest {
 
@@ -16,6 +20,7 @@ class CukeInspectorStepDefinitionTest {
     void shouldRetrieveAnnotationWhichMatchesExpression() throws ClassNotFoundException, NoSuchMethodException {
         StepDefinition stepDefinition = Mockito.mock(StepDefinition.class);
         Mockito.when(stepDefinition.getSourceReference()).thenReturn(getSourceReference("first"));
+        Mockito.when(stepDefinition.getPattern()).thenReturn("assert");
 
         StepExpression stepExpression = Mockito.mock(StepExpression.class);
         Mockito.when(stepExpression.getSource()).thenReturn("assert");
@@ -31,6 +36,7 @@ class CukeInspectorStepDefinitionTest {
     void shouldRetrieveAnnotation() throws ClassNotFoundException, NoSuchMethodException {
         StepDefinition stepDefinition = Mockito.mock(StepDefinition.class);
         Mockito.when(stepDefinition.getSourceReference()).thenReturn(getSourceReference("second"));
+        Mockito.when(stepDefinition.getPattern()).thenReturn("an expression");
 
         StepExpression stepExpression = Mockito.mock(StepExpression.class);
         Mockito.when(stepExpression.getSource()).thenReturn("an expression");
@@ -42,6 +48,26 @@ class CukeInspectorStepDefinitionTest {
         assertThat(cucumberAnnotation).contains("When");
     }
 
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "an expression        | true  | an expression",
+            "arrange with {int}   | false | 'arrange with '",
+            "I have a cat/dog     | false | 'I have a '",
+            "cucumber(s)          | false | cucumber",
+            "^I have (\\d+) cats$  | false | 'I have '",
+            "^I have cats?$       | false | 'I have cat'",
+            "'^I (?:have|want)$' | false | ''",
+            "I have cats$         | false | ''"})
+    void shouldDetermineLiteralTextOfPattern(String pattern, boolean literal, String literalPrefix) {
+        StepDefinition stepDefinition = Mockito.mock(StepDefinition.class);
+        Mockito.when(stepDefinition.getPattern()).thenReturn(pattern);
+
+        CukeInspectorStepDefinition definition = new CukeInspectorStepDefinition(stepDefinition, Mockito.mock(StepExpression.class));
+
+        assertThat(definition.isLiteral()).isEqualTo(literal);
+        assertThat(definition.getLiteralPrefix()).isEqualTo(literalPrefix);
+    }
+
     private Optional<SourceReference> getSourceReference(String methodName) throws ClassNotFoundException, NoSuchMethodException {
         return Optional.of(SourceReference.fromMethod(Class.forName("org.cuke.inspector.steps.duplicated.expressions.Steps").getMethod(methodName)));
     }
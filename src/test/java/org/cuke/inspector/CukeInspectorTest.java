@@ -1,15 +1,22 @@
 package org.cuke.inspector;
 
+import org.assertj.core.api.InstanceOfAssertFactories;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 class CukeInspectorTest {
 
@@ -62,7 +69,18 @@ class CukeInspectorTest {
                     .getViolations();
 
             assertThat(violations).hasSize(3);
-            System.out.println(violations);
+        }
+
+        @Test
+        void shouldFindSameViolationsWhenParsingInParallel() throws IOException {
+            List<CukeViolation> violations = CukeInspector
+                    .withFeatureDirectory(Paths.get(INVALID_TAG_COMBINATIONS_DIRECTORY))
+                    .withParallelParsing(4)
+                    .should()
+                    .findInvalidTagCombinations(Set.of("@tag2", "@tag3"))
+                    .getViolations();
+
+            assertThat(violations).hasSize(3);
         }
 
         @Test
@@ -74,7 +92,6 @@ class CukeInspectorTest {
                     .getViolations();
 
             assertThat(violations.getFirst().message()).startsWith("Feature");
-            System.out.println(violations);
         }
 
         @Test
@@ -86,7 +103,6 @@ class CukeInspectorTest {
                     .getViolations();
 
             assertThat(violations.getFirst().message()).startsWith("Scenario");
-            System.out.println(violations);
         }
 
         @Test
@@ -98,7 +114,6 @@ class CukeInspectorTest {
                     .getViolations();
 
             assertThat(violations.getFirst().message()).startsWith("Scenario");
-            System.out.println(violations);
         }
     }
 
@@ -152,6 +167,18 @@ class CukeInspectorTest {
                     .allSatisfy(s -> assertThat(s).startsWith("Step"))
                     .allSatisfy(s -> assertThat(s).containsAnyOf("Aber", "Gegeben seien", "Gegeben sei"));
         }
+
+        @Test
+        void shouldFindViolationsInMemoryMappedFiles() throws IOException {
+            List<CukeViolation> violations = CukeInspector
+                    .withFeatureDirectory(Paths.get("src/test/resources/invalidstepkeywords"))
+                    .withMemoryMappedFiles()
+                    .should()
+                    .findInvalidKeywords(List.of("Gegeben seien", "Gegeben sei", "Aber"))
+                    .getViolations();
+
+            assertThat(violations).hasSize(3);
+        }
     }
 
     @Nested
@@ -217,6 +244,22 @@ class CukeInspectorTest {
 
             assertThat(violations).hasSize(1);
         }
+
+        @Test
+        void shouldOnlyFindScenariosWithTheSameNameWhenNamesHaveTheSameHash() throws IOException {
+            List<CukeViolation> violations = CukeInspector
+                    .withFeatureFile(Paths.get("src/test/resources/collidingscenarios/colliding.feature"))
+                    .should()
+                    .findDuplicateScenarioNames()
+                    .getViolations();
+
+            assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+            assertThat(violations).singleElement()
+                    .extracting(CukeViolation::featureLocations)
+                    .asInstanceOf(InstanceOfAssertFactories.list(FeatureLocation.class))
+                    .extracting(FeatureLocation::tokenName, FeatureLocation::lineNumber)
+                    .containsExactly(tuple("Aa", 3), tuple("Aa", 9));
+        }
     }
 
     @Nested
@@ -261,6 +304,19 @@ class CukeInspectorTest {
             assertThat(cukeInspector.getViolations()).hasSize(1);
         }
 
+        @Test
+        void shouldFindUnusedStepDefinitionWithParameters() throws IOException {
+            List<CukeViolation> violations = CukeInspector
+                    .withFeatureFile(Paths.get("src/test/resources/nousage/matching_steps.feature"))
+                    .withJavaPackage("org.cuke.inspector.steps.withparam")
+                    .should()
+                    .findUnusedStepDefinitions()
+                    .getViolations();
+
+            assertThat(violations).hasSize(1);
+            assertThat(violations.getFirst().message()).contains("'test {string}'");
+        }
+
         @Test
         void shouldAcceptCustomTypesInExpressions() throws IOException {
             List<CukeViolation> violations = CukeInspector
@@ -289,6 +345,365 @@ class CukeInspectorTest {
             assertThat(violations.getFirst().message()).contains("'Then there is no implementation'");
         }
 
+        @Test
+        void shouldNotReportStepsWithParametersAsMissing() throws IOException {
+            List<CukeViolation> violations = CukeInspector
+                    .withFeatureFile(Paths.get("src/test/resources/nousage/matching_steps.feature"))
+                    .withJavaPackage("org.cuke.inspector.steps.matching.steps")
+                    .should()
+                    .findMissingStepDefinitions()
+                    .getViolations();
+
+            assertThat(violations).isEmpty();
+        }
+
+        @Test
+        void shouldFindSameStepsWithParseCache(@TempDir Path cacheDirectory) throws IOException {
+            for (int run = 0; run < 2; run++) {
+                List<CukeViolation> violations = CukeInspector
+                        .withFeatureFile(Paths.get("src/test/resources/missingsteps/feature_without_step_impl.feature"))
+                        .withJavaPackage("org.cuke.inspector.steps.missing.steps")
+                        .withCacheDirectory(cacheDirectory)
+                        .should()
+                        .findMissingStepDefinitions()
+                        .getViolations();
+
+                assertThat(violations).hasSize(1);
+                assertThat(violations.getFirst().featureLocation().line()).isEqualTo(5L);
+            }
+        }
+
+    }
+
+    @Nested
+    class AmbiguousSteps {
+        @Test
+        void shouldFindStepsMatchingSeveralStepDefinitions() throws IOException {
+            List<CukeViolation> violations = CukeInspector
+                    .withFeatureDirectory(Paths.get("src/test/resources/ambiguoussteps"))
+                    .withJavaPackage("org.cuke.inspector.steps.ambiguous")
+                    .should()
+                    .findAmbiguousSteps()
+                    .getViolations();
+
+            assertThat(violations)
+                    .extracting(CukeViolation::message)
+                    .containsExactly(
+                            "The Gherkin step 'I have 5 cukes' matches 2 step definitions.",
+                            "The Gherkin step 'I have 3 cukes in my belly' matches 2 step definitions.");
+        }
+
+        @Test
+        void shouldReportLocationsOfCompetingStepDefinitions() throws IOException {
+            List<CukeViolation> violations = CukeInspector
+                    .withFeatureDirectory(Paths.get("src/test/resources/ambiguoussteps"))
+                    .withJavaPackage("org.cuke.inspector.steps.ambiguous")
+                    .should()
+                    .findAmbiguousSteps()
+                    .getViolations();
+
+            assertThat(violations.getFirst().format())
+                    .contains("Steps.anyNumberOfCukes(int)")
+                    .contains("Steps.fiveCukes()")
+                    .contains("@Given(\"I have 5 cukes\")");
+        }
+    }
+
+    @Nested
+    class IncrementalInspection {
+        private static final String UNTAGGED = "Feature: %s\n  Scenario: %s\n    Given a step\n";
+        private static final String TAGGED = "Feature: %s\n  @123456\n  Scenario: %s\n    Given a step\n";
+
+        @TempDir
+        Path directory;
+
+        @Test
+        void shouldUpdateViolationsOfChangedFile() throws IOException {
+            Path first = write("first.feature", UNTAGGED.formatted("first", "scenario one"));
+            write("second.feature", UNTAGGED.formatted("second", "scenario two"));
+            CukeInspector cukeInspector = CukeInspector.withFeatureDirectory(directory)
+                    .should()
+                    .findScenariosMissingRequiredTags(USERSTORY_TAG);
+            assertThat(cukeInspector.getViolations()).hasSize(2);
+
+            write("first.feature", TAGGED.formatted("first", "scenario one"));
+            List<CukeViolation> violations = cukeInspector.inspectChanged(Set.of(first)).getViolations();
+
+            assertThat(violations)
+                    .extracting(violation -> violation.featureLocation().tokenName())
+                    .containsExactly("scenario two");
+        }
+
+        @Test
+        void shouldFollowAddedAndDeletedFiles() throws IOException {
+            Path first = write("first.feature", UNTAGGED.formatted("first", "scenario one"));
+            CukeInspector cukeInspector = CukeInspector.withFeatureDirectory(directory)
+                    .should()
+                    .findScenariosMissingRequiredTags(USERSTORY_TAG);
+            assertThat(cukeInspector.getViolations()).hasSize(1);
+
+            Path second = write("second.feature", UNTAGGED.formatted("second", "scenario two"));
+            Files.delete(first);
+            List<CukeViolation> violations = cukeInspector.inspectChanged(Set.of(first, second)).getViolations();
+
+            assertThat(violations)
+                    .extracting(violation -> violation.featureLocation().tokenName())
+                    .containsExactly("scenario two");
+        }
+
+        @Test
+        void shouldReportAddedFilesInSameOrderAsFreshInspection() throws IOException {
+            write("b.feature", UNTAGGED.formatted("b", "scenario b"));
+            CukeInspector cukeInspector = CukeInspector.withFeatureDirectory(directory)
+                    .should()
+                    .findScenariosMissingRequiredTags(USERSTORY_TAG);
+            assertThat(cukeInspector.getViolations()).hasSize(1);
+
+            Path added = write("a.feature", UNTAGGED.formatted("a", "scenario a"));
+            List<CukeViolation> violations = cukeInspector.inspectChanged(Set.of(added)).getViolations();
+
+            assertThat(violations)
+                    .extracting(violation -> violation.featureLocation().tokenName())
+                    .containsExactly("scenario a", "scenario b");
+        }
+
+        @Test
+        void shouldUpdateStepChecksByChangedFiles() throws IOException {
+            write("first.feature", "Feature: first\n  Scenario: first\n    When act\n    Given a missing step\n");
+            Path second = write("second.feature", "Feature: second\n  Scenario: second\n    Given arrange with 5\n");
+            CukeInspector cukeInspector = CukeInspector.withFeatureDirectory(directory)
+                    .withJavaPackage("org.cuke.inspector.steps.matching.steps")
+                    .should()
+                    .findMissingStepDefinitions()
+                    .findUnusedStepDefinitions();
+            assertThat(cukeInspector.getViolations())
+                    .extracting(CukeViolation::message)
+                    .containsExactly("The Gherkin step 'Given a missing step' has no Java implementation.",
+                            "The step definition 'assert with {string}' is not used in any feature file.",
+                            "The step definition 'assert {string} {int}' is not used in any feature file.");
+
+            write("second.feature", "Feature: second\n  Scenario: second\n    Then assert with \"me\"\n    Then another missing step\n");
+            List<CukeViolation> violations = cukeInspector.inspectChanged(Set.of(second)).getViolations();
+
+            assertThat(violations)
+                    .extracting(CukeViolation::message)
+                    .containsExactly("The Gherkin step 'Given a missing step' has no Java implementation.",
+                            "The Gherkin step 'Then another missing step' has no Java implementation.",
+                            "The step definition 'arrange with {int}' is not used in any feature file.",
+                            "The step definition 'assert {string} {int}' is not used in any feature file.");
+        }
+
+        @Test
+        void shouldUpdateDuplicateScenariosByChangedFiles() throws IOException {
+            write("first.feature", UNTAGGED.formatted("first", "same name"));
+            Path second = write("second.feature", UNTAGGED.formatted("second", "other name"));
+            CukeInspector cukeInspector = CukeInspector.withFeatureDirectory(directory)
+                    .should()
+                    .findDuplicateScenarioNames();
+            assertThat(cukeInspector.getViolations()).isEmpty();
+
+            write("second.feature", UNTAGGED.formatted("second", "same name"));
+            assertThat(cukeInspector.inspectChanged(Set.of(second)).getViolations())
+                    .extracting(CukeViolation::message)
+                    .containsExactly("Duplicated scenarios 'same name' in 2 feature files.");
+
+            write("second.feature", UNTAGGED.formatted("second", "other name"));
+            assertThat(cukeInspector.inspectChanged(Set.of(second)).getViolations()).isEmpty();
+        }
+
+        private Path write(String fileName, String content) throws IOException {
+            return Files.writeString(directory.resolve(fileName), content);
+        }
+    }
+
+    @Nested
+    class ShardedInspection {
+        @TempDir
+        Path directory;
+
+        @Test
+        void shouldFindSameGlobalViolationsInMergedShards() throws IOException {
+            Path first = directory.resolve("first.shard");
+            Path second = directory.resolve("second.shard");
+            CukeInspector.withFeatureFile(Paths.get("src/test/resources/duplicatescenarios/feature1.feature"))
+                    .withFeatureFile(Paths.get("src/test/resources/nousage/matching_steps.feature"))
+                    .should()
+                    .writeShard(first);
+            CukeInspector.withFeatureFile(Paths.get("src/test/resources/duplicatescenarios/feature2.feature"))
+                    .withJavaPackage("org.cuke.inspector.steps.noparam")
+                    .should()
+                    .writeShard(second);
+
+            List<CukeViolation> merged = globalViolationsOf(CukeInspector.fromShards(List.of(first, second)));
+            List<CukeViolation> whole = globalViolationsOf(CukeInspector
+                    .withFeatureDirectory(Paths.get("src/test/resources/duplicatescenarios"))
+                    .withFeatureFile(Paths.get("src/test/resources/nousage/matching_steps.feature"))
+                    .withJavaPackage("org.cuke.inspector.steps.noparam")
+                    .should());
+
+            assertThat(merged).hasSize(2);
+            assertThat(ViolationFormatter.format(merged)).isEqualTo(ViolationFormatter.format(whole));
+        }
+
+        @Test
+        void shouldTakeGlueSharedByShardsOnce() throws IOException {
+            Path first = directory.resolve("first.shard");
+            Path second = directory.resolve("second.shard");
+            CukeInspector.withJavaPackage("org.cuke.inspector.steps.duplicated.expressions").should().writeShard(first);
+            CukeInspector.withJavaPackage("org.cuke.inspector.steps.duplicated.expressions").should().writeShard(second);
+
+            List<CukeViolation> violations = CukeInspector.fromShards(List.of(first, second))
+                    .findDuplicateStepDefinitions()
+                    .getViolations();
+
+            assertThat(violations)
+                    .extracting(CukeViolation::message)
+                    .containsExactly("The step definition expression 'an expression' was found 3 times.");
+        }
+
+        @Test
+        void shouldRejectFilesWhichAreNoShards() throws IOException {
+            Path file = Files.writeString(directory.resolve("no.shard"), "Feature: no shard");
+
+            assertThatThrownBy(() -> CukeInspector.fromShards(List.of(file))).isInstanceOf(IOException.class);
+        }
+
+        private List<CukeViolation> globalViolationsOf(CukeInspector cukeInspector) {
+            return cukeInspector
+                    .findDuplicateScenarioNames()
+                    .findDuplicateStepDefinitions()
+                    .findUnusedStepDefinitions()
+                    .getViolations();
+        }
+
+        private List<CukeViolation> globalViolationsOf(ShardInspector shardInspector) {
+            return shardInspector
+                    .findDuplicateScenarioNames()
+                    .findDuplicateStepDefinitions()
+                    .findUnusedStepDefinitions()
+                    .getViolations();
+        }
+    }
+
+    @Nested
+    class StreamingViolations {
+        @TempDir
+        Path directory;
+
+        @Test
+        void shouldStreamSameViolationsAsCollected() throws IOException {
+            List<CukeViolation> collected = allChecks(CukeInspector
+                    .withFeatureDirectory(Paths.get("src/test/resources/duplicatescenarios"))
+                    .withJavaPackage("org.cuke.inspector.steps.noparam"))
+                    .getViolations();
+
+            List<CukeViolation> streamed = new ArrayList<>();
+            boolean completed = allChecks(CukeInspector
+                    .withFeatureDirectory(Paths.get("src/test/resources/duplicatescenarios"))
+                    .withJavaPackage("org.cuke.inspector.steps.noparam")
+                    .withStreamingParsing())
+                    .streamViolations(streamed::add);
+
+            assertThat(completed).isTrue();
+            assertThat(streamed)
+                    .extracting(CukeViolation::message)
+                    .containsExactlyInAnyOrderElementsOf(collected.stream().map(CukeViolation::message).toList());
+        }
+
+        @Test
+        void shouldStopAfterFirstViolationsWhenFailingFast() throws IOException {
+            List<CukeViolation> streamed = new ArrayList<>();
+
+            boolean completed = allChecks(CukeInspector
+                    .withFeatureDirectory(Paths.get("src/test/resources/duplicatescenarios"))
+                    .withJavaPackage("org.cuke.inspector.steps.noparam"))
+                    .streamViolations(ViolationSink.failFast(2, streamed::add));
+
+            assertThat(completed).isFalse();
+            assertThat(streamed).hasSize(2);
+        }
+
+        @Test
+        void shouldStreamSameViolationsWithConcurrentCheckers() throws IOException {
+            List<CukeViolation> collected = allChecks(CukeInspector
+                    .withFeatureDirectory(Paths.get("src/test/resources/duplicatescenarios"))
+                    .withJavaPackage("org.cuke.inspector.steps.noparam"))
+                    .getViolations();
+
+            List<CukeViolation> streamed = new ArrayList<>();
+            boolean completed = allChecks(CukeInspector
+                    .withFeatureDirectory(Paths.get("src/test/resources/duplicatescenarios"))
+                    .withJavaPackage("org.cuke.inspector.steps.noparam")
+                    .withConcurrentCheckers())
+                    .streamViolations(streamed::add);
+
+            assertThat(completed).isTrue();
+            assertThat(streamed)
+                    .extracting(CukeViolation::message)
+                    .containsExactlyInAnyOrderElementsOf(collected.stream().map(CukeViolation::message).toList());
+        }
+
+        @Test
+        void shouldStopAllConcurrentCheckersWhenFailingFast() throws IOException {
+            List<CukeViolation> streamed = new ArrayList<>();
+
+            boolean completed = allChecks(CukeInspector
+                    .withFeatureDirectory(Paths.get("src/test/resources/duplicatescenarios"))
+                    .withJavaPackage("org.cuke.inspector.steps.noparam")
+                    .withConcurrentCheckers())
+                    .streamViolations(ViolationSink.failFast(2, streamed::add));
+
+            assertThat(completed).isFalse();
+            assertThat(streamed).hasSize(2);
+        }
+
+        @Test
+        void shouldWriteViolationsToFile() throws IOException {
+            Path file = directory.resolve("violations.txt");
+            CukeInspector cukeInspector = CukeInspector
+                    .withFeatureDirectory(Paths.get("src/test/resources/duplicatescenarios"))
+                    .should()
+                    .findScenariosMissingRequiredTags(USERSTORY_TAG);
+
+            try (ViolationWriter writer = ViolationWriter.toFile(file)) {
+                cukeInspector.streamViolations(writer);
+                assertThat(writer.getViolationCount()).isEqualTo(3);
+            }
+
+            List<CukeViolation> collected = CukeInspector
+                    .withFeatureDirectory(Paths.get("src/test/resources/duplicatescenarios"))
+                    .should()
+                    .findScenariosMissingRequiredTags(USERSTORY_TAG)
+                    .getViolations();
+            assertThat(file).hasContent(ViolationFormatter.format(collected));
+        }
+
+        @Test
+        void shouldFormatOnlyFirstViolationsWhenAsserting() throws IOException {
+            StringBuilder feature = new StringBuilder("Feature: many untagged scenarios\n");
+            for (int i = 0; i < 1003; i++) {
+                feature.append("  Scenario: scenario ").append(i).append("\n    Given a step\n");
+            }
+            Path file = Files.writeString(directory.resolve("many.feature"), feature);
+
+            CukeInspector cukeInspector = CukeInspector.withFeatureFile(file)
+                    .should()
+                    .findScenariosMissingRequiredTags(USERSTORY_TAG);
+
+            assertThatThrownBy(cukeInspector::hasNoViolations)
+                    .hasMessageContaining("scenario 999'")
+                    .hasMessageNotContaining("scenario 1000'")
+                    .hasMessageEndingWith("... and 3 more violations" + System.lineSeparator());
+        }
+
+        private CukeInspector allChecks(CukeInspectorBuilder builder) {
+            return builder.should()
+                    .findScenariosMissingRequiredTags(USERSTORY_TAG)
+                    .findDuplicateScenarioNames()
+                    .findUnusedStepDefinitions()
+                    .findMissingStepDefinitions()
+                    .findInvalidKeywords(List.of("Then"));
+        }
     }
 
     @Nested
@@ -311,6 +726,70 @@ class CukeInspectorTest {
 
             assertThat(violations).hasSize(15);
         }
+
+        @Test
+        void shouldKeepViolationsWhenInspectingAgain() throws IOException {
+            CukeInspector cukeInspector = CukeInspector
+                    .withFeatureDirectory(Paths.get("src/test/resources/duplicatescenarios"))
+                    .should()
+                    .findDuplicateScenarioNames();
+            assertThat(cukeInspector.getViolations()).hasSize(1);
+
+            List<CukeViolation> violations = cukeInspector
+                    .findScenariosMissingRequiredTags(USERSTORY_TAG)
+                    .getViolations();
+
+            assertThat(violations).hasSize(4);
+            assertThat(violations.getFirst().message()).startsWith("Duplicated");
+        }
+
+        @Test
+        void shouldAggregateSameViolationsWhenStreamingFeatures() throws IOException {
+            List<CukeViolation> violations = CukeInspector
+                    .withFeatureDirectory(Paths.get("src/test/resources/duplicatescenarios"))
+                    .withFeatureDirectory(Paths.get("src/test/resources/forbiddentags"))
+                    .withFeatureDirectory(Paths.get("src/test/resources/invalidtagcombinations/"))
+                    .withStreamingParsing()
+                    .should()
+                    .findDuplicateScenarioNames()
+                    .findFeaturesWithDisallowedTags(USERSTORY_TAG)
+                    .findScenariosMissingRequiredTags(USERSTORY_TAG)
+                    .findInvalidTagCombinations(Set.of("@tag2", "@tag3"))
+                    .findInvalidKeywords(List.of("But"))
+                    .getViolations();
+
+            assertThat(violations).hasSize(14);
+        }
+
+        @Test
+        void shouldReportSameViolationsInSameOrderWithConcurrentCheckers() throws IOException {
+            List<CukeViolation> sequential = inspectAll(CukeInspector
+                    .withFeatureDirectory(Paths.get("src/test/resources/duplicatescenarios"))
+                    .withFeatureDirectory(Paths.get("src/test/resources/nousage"))
+                    .withJavaPackage("org.cuke.inspector.steps.duplicated.expressions"));
+
+            List<CukeViolation> concurrent = inspectAll(CukeInspector
+                    .withFeatureDirectory(Paths.get("src/test/resources/duplicatescenarios"))
+                    .withFeatureDirectory(Paths.get("src/test/resources/nousage"))
+                    .withJavaPackage("org.cuke.inspector.steps.duplicated.expressions")
+                    .withConcurrentCheckers());
+
+            assertThat(concurrent)
+                    .extracting(CukeViolation::message)
+                    .isNotEmpty()
+                    .containsExactlyElementsOf(sequential.stream().map(CukeViolation::message).toList());
+        }
+
+        private List<CukeViolation> inspectAll(CukeInspectorBuilder builder) {
+            return builder.should()
+                    .findUnusedStepDefinitions()
+                    .findDuplicateScenarioNames()
+                    .findDuplicateStepDefinitions()
+                    .findScenariosMissingRequiredTags(USERSTORY_TAG)
+                    .findMissingStepDefinitions()
+                    .findInvalidKeywords(List.of("But"))
+                    .getViolations();
+        }
     }
 
 }
\ No newline at end of file
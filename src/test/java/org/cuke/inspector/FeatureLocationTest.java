@@ -0,0 +1,42 @@
+package org.cuke.inspector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeatureLocationTest {
+
+    @Test
+    void shouldKeepAccessorsOfRecord() {
+        FeatureLocation location = new FeatureLocation(Optional.of("file:///a.feature"), "a scenario", 12345L, Optional.empty());
+
+        assertThat(location.fileName()).isEqualTo("file:///a.feature");
+        assertThat(location.tokenName()).isEqualTo("a scenario");
+        assertThat(location.line()).isEqualTo(12345L);
+        assertThat(location.lineNumber()).isEqualTo(12345);
+        assertThat(location.column()).isZero();
+        assertThat(location).isEqualTo(new FeatureLocation("file:///a.feature", "a scenario", 12345L, 0L))
+                .hasSameHashCodeAs(new FeatureLocation("file:///a.feature", "a scenario", 12345L, 0L));
+    }
+
+    @Test
+    void shouldReportUnknownPositionsAsNull() {
+        FeatureLocation location = new FeatureLocation("file:///a.feature", "token", null, null);
+
+        assertThat(location.line()).isNull();
+        assertThat(location.columnNumber()).isEqualTo(FeatureLocation.UNKNOWN);
+        assertThat(ViolationFormatter.format(new CukeViolation() {
+            @Override
+            public String message() {
+                return "message";
+            }
+
+            @Override
+            public FeatureLocation featureLocation() {
+                return location;
+            }
+        })).contains("file:///a.feature:[null,null] message");
+    }
+}
@@ -0,0 +1,40 @@
+package org.cuke.inspector;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeatureSourceTest {
+
+    private static final Path FEATURE_FILE = Paths.get("src/test/resources/invalidstepkeywords/feature_language_de.feature");
+
+    @Test
+    void shouldReadSameContentThroughMemoryMapping() throws IOException {
+        try (InputStream inputStream = FeatureSource.mapped(FEATURE_FILE).open()) {
+            assertThat(inputStream.readAllBytes()).isEqualTo(Files.readAllBytes(FEATURE_FILE));
+        }
+    }
+
+    @Test
+    void shouldUseFileUriForPathSources() {
+        assertThat(FeatureSource.of(FEATURE_FILE).uri()).isEqualTo(FEATURE_FILE.toUri());
+        assertThat(FeatureSource.mapped(FEATURE_FILE).uri()).isEqualTo(FEATURE_FILE.toUri());
+    }
+
+    @Test
+    void shouldOpenInMemorySourceMoreThanOnce() throws IOException {
+        FeatureSource source = FeatureSource.of(URI.create("classpath:some.feature"), new ByteArrayInputStream("Feature: x".getBytes()));
+
+        try (InputStream first = source.open(); InputStream second = source.open()) {
+            assertThat(first.readAllBytes()).isEqualTo(second.readAllBytes());
+        }
+    }
+}
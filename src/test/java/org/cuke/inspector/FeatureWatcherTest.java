@@ -0,0 +1,132 @@
+package org.cuke.inspector;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+class FeatureWatcherTest {
+
+    private static final String USERSTORY_TAG = "@\\d{6}";
+    private static final long TIMEOUT_SECONDS = 10;
+    private static final String UNTAGGED = "Feature: %s\n  Scenario: %s\n    Given a step\n";
+
+    @TempDir
+    Path directory;
+
+    private final BlockingQueue<List<CukeViolation>> reports = new LinkedBlockingQueue<>();
+
+    @Test
+    void shouldReportViolationsOfChangedFiles() throws IOException, InterruptedException {
+        Files.writeString(directory.resolve("first.feature"), UNTAGGED.formatted("first", "scenario one"));
+        CukeInspector cukeInspector = CukeInspector.withFeatureDirectory(directory)
+                .should()
+                .findScenariosMissingRequiredTags(USERSTORY_TAG);
+
+        try (FeatureWatcher ignored = cukeInspector.watch(directory, reports::add)) {
+            assertThat(nextReport()).hasSize(1);
+
+            Files.writeString(directory.resolve("second.feature"), UNTAGGED.formatted("second", "scenario two"));
+
+            assertThat(nextReportWith(2)).hasSize(2);
+        }
+    }
+
+    @Test
+    void shouldWatchNewDirectories() throws IOException, InterruptedException {
+        CukeInspector cukeInspector = CukeInspector.withFeatureDirectory(directory)
+                .should()
+                .findScenariosMissingRequiredTags(USERSTORY_TAG);
+
+        try (FeatureWatcher ignored = cukeInspector.watch(directory, reports::add)) {
+            assertThat(nextReport()).isEmpty();
+
+            Path subdirectory = Files.createDirectory(directory.resolve("sub"));
+            Files.writeString(subdirectory.resolve("nested.feature"), UNTAGGED.formatted("nested", "nested scenario"));
+
+            assertThat(nextReportWith(1))
+                    .extracting(violation -> violation.featureLocation().tokenName())
+                    .containsExactly("nested scenario");
+        }
+    }
+
+    @Test
+    void shouldCheckAllFeatureFilesAgainAfterMissedEvents() throws IOException, InterruptedException {
+        Path kept = Files.writeString(directory.resolve("kept.feature"), UNTAGGED.formatted("kept", "kept scenario"));
+        Path deleted = Files.writeString(directory.resolve("deleted.feature"), UNTAGGED.formatted("deleted", "deleted scenario"));
+        CukeInspector cukeInspector = CukeInspector.withFeatureDirectory(directory)
+                .should()
+                .findScenariosMissingRequiredTags(USERSTORY_TAG);
+        assertThat(cukeInspector.getViolations()).hasSize(2);
+        // deleted before watching, so only the overflow can tell
+        Files.delete(deleted);
+
+        Set<Path> changedFiles = new HashSet<>();
+        try (FeatureWatcher watcher = cukeInspector.watch(directory, reports::add)) {
+            assertThat(nextReport()).hasSize(2);
+
+            watcher.collectEvent(directory, overflow(), changedFiles);
+        }
+
+        assertThat(changedFiles).containsExactlyInAnyOrder(kept.toAbsolutePath(), deleted.toAbsolutePath());
+        assertThat(cukeInspector.inspectChanged(changedFiles).getViolations())
+                .extracting(violation -> violation.featureLocation().tokenName())
+                .containsExactly("kept scenario");
+    }
+
+    private static WatchEvent<Object> overflow() {
+        return new WatchEvent<>() {
+            @Override
+            public Kind<Object> kind() {
+                return StandardWatchEventKinds.OVERFLOW;
+            }
+
+            @Override
+            public int count() {
+                return 1;
+            }
+
+            @Override
+            public Object context() {
+                return null;
+            }
+        };
+    }
+
+    private List<CukeViolation> nextReport() throws InterruptedException {
+        List<CukeViolation> report = reports.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertThat(report).as("report within %d seconds", TIMEOUT_SECONDS).isNotNull();
+        return report;
+    }
+
+    /**
+     * A file may be reported while it is only partly written, or apart from its new directory, so
+     * reports are taken until one has the expected size or the time is up.
+     */
+    private List<CukeViolation> nextReportWith(int violations) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        List<CukeViolation> lastReport = null;
+        while (lastReport == null || lastReport.size() != violations) {
+            long remaining = deadline - System.nanoTime();
+            List<CukeViolation> report = remaining > 0 ? reports.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (report == null) {
+                return fail("no report with %d violations within %d seconds, last report: %s", violations, TIMEOUT_SECONDS, lastReport);
+            }
+            lastReport = report;
+        }
+        return lastReport;
+    }
+}
@@ -0,0 +1,68 @@
+package org.cuke.inspector;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class GlueCacheTest {
+
+    private static final URI CUSTOM_TYPE_GLUE = URI.create("classpath:org.cuke.inspector.steps.customtype");
+    private static final URI AMBIGUOUS_GLUE = URI.create("classpath:org.cuke.inspector.steps.ambiguous");
+
+    @TempDir
+    Path cacheDirectory;
+
+    @Test
+    void shouldRestoreStepDefinitionsWithoutScanningTheGlue() {
+        CukeCachingGlue loaded = supplier(AMBIGUOUS_GLUE).getGlue();
+
+        CukeCachingGlue restored = supplier(AMBIGUOUS_GLUE).getGlue();
+
+        assertThat(restored.getStepDefinitions()).allMatch(IndexedStepDefinition.class::isInstance);
+        assertThat(restored.getCukeStepDefinitions())
+                .extracting(CukeInspectorStepDefinition::getPattern, CukeInspectorStepDefinition::getLocation, CukeInspectorStepDefinition::getCucumberAnnotation)
+                .containsExactlyElementsOf(loaded.getCukeStepDefinitions().stream()
+                        .map(stepDefinition -> tuple(stepDefinition.getPattern(), stepDefinition.getLocation(), stepDefinition.getCucumberAnnotation()))
+                        .toList());
+    }
+
+    @Test
+    void shouldMatchStepsWithRestoredParameterTypes() {
+        supplier(CUSTOM_TYPE_GLUE).getGlue();
+
+        CucumberSupplier supplier = supplier(CUSTOM_TYPE_GLUE);
+
+        assertThat(supplier.getGlue().getParameterTypes()).allMatch(IndexedParameterTypeDefinition.class::isInstance);
+        assertThat(supplier.getGlue().getStepDefinitionIndex().hasMatching("anything in an expression")).isTrue();
+    }
+
+    @Test
+    void shouldScanTheGlueAgainWhenAClassFileChanges() throws IOException, URISyntaxException {
+        supplier(AMBIGUOUS_GLUE).getGlue();
+        Path classFile = Path.of(getClass().getResource("/org/cuke/inspector/steps/ambiguous/Steps.class").toURI());
+        FileTime lastModified = Files.getLastModifiedTime(classFile);
+        try {
+            Files.setLastModifiedTime(classFile, FileTime.fromMillis(lastModified.toMillis() + 1000));
+
+            assertThat(supplier(AMBIGUOUS_GLUE).getGlue().getStepDefinitions()).noneMatch(IndexedStepDefinition.class::isInstance);
+        } finally {
+            Files.setLastModifiedTime(classFile, lastModified);
+        }
+    }
+
+    private CucumberSupplier supplier(URI glue) {
+        FeatureSource source = FeatureSource.of(URI.create("classpath:glue.feature"), new ByteArrayInputStream("Feature: glue".getBytes()));
+        return new CucumberSupplier(List.of(source), glue, 1, true, cacheDirectory);
+    }
+}
@@ -0,0 +1,52 @@
+package org.cuke.inspector;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonLinesViolationWriterTest {
+
+    @Test
+    void shouldWriteOneEscapedLinePerViolation() throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonLinesViolationWriter writer = new JsonLinesViolationWriter(out)) {
+            writer.accept(new SimpleViolation("a \"quoted\" \\ message\n", new FeatureLocation("file:///a.feature", "token", 3L, 5L)));
+            writer.accept(new SimpleViolation("without location", null));
+        }
+
+        assertThat(out.toString()).isEqualTo("""
+                {"ruleId":"Simple","message":"a \\"quoted\\" \\\\ message\\n","locations":[{"uri":"file:///a.feature","line":3,"column":5,"name":"token"}]}
+                {"ruleId":"Simple","message":"without location","locations":[]}
+                """);
+    }
+
+    @Test
+    void shouldWriteAllLocationsAndViolationsOfGlue() throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonLinesViolationWriter writer = new JsonLinesViolationWriter(out)) {
+            CukeInspector.withFeatureDirectory(Paths.get("src/test/resources/duplicatescenarios"))
+                    .withJavaPackage("org.cuke.inspector.steps.noparam")
+                    .should()
+                    .findDuplicateScenarioNames()
+                    .findUnusedStepDefinitions()
+                    .streamViolations(writer);
+        }
+
+        List<String> lines = out.toString().lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(lines.getFirst())
+                .startsWith("{\"ruleId\":\"DuplicatedScenarios\"")
+                .contains("feature2.feature\",\"line\":3", "feature2.feature\",\"line\":6");
+        assertThat(lines.getLast())
+                .startsWith("{\"ruleId\":\"UnusedStepDefinitions\"")
+                .endsWith("\"locations\":[{\"method\":\"org.cuke.inspector.steps.noparam.MoreSteps.thenExpression()\",\"pattern\":\"test\"}]}");
+    }
+
+    private record SimpleViolation(String message, FeatureLocation featureLocation) implements CukeViolation {
+    }
+}
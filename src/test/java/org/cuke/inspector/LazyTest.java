@@ -0,0 +1,66 @@
+package org.cuke.inspector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class LazyTest {
+
+    @Test
+    void shouldComputeOnceForConcurrentCallers() throws Exception {
+        AtomicInteger computations = new AtomicInteger();
+        Lazy<Object> lazy = new Lazy<>(() -> {
+            computations.incrementAndGet();
+            return new Object();
+        });
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Object>> values = new CopyOnWriteArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 64; i++) {
+                values.add(executor.submit(() -> {
+                    start.await();
+                    return lazy.get();
+                }));
+            }
+            start.countDown();
+        }
+
+        assertThat(computations).hasValue(1);
+        for (Future<Object> value : values) {
+            assertThat(value.get()).isSameAs(lazy.get());
+        }
+    }
+
+    @Test
+    void shouldComputeAgainAfterFailure() {
+        AtomicInteger computations = new AtomicInteger();
+        Lazy<String> lazy = new Lazy<>(() -> {
+            if (computations.incrementAndGet() == 1) {
+                throw new IllegalStateException("first try");
+            }
+            return "second try";
+        });
+
+        assertThatIllegalStateException().isThrownBy(lazy::get);
+        assertThat(lazy.isComputed()).isFalse();
+        assertThat(lazy.get()).isEqualTo("second try");
+    }
+
+    @Test
+    void shouldComputeAgainAfterReset() {
+        AtomicInteger computations = new AtomicInteger();
+        Lazy<Integer> lazy = new Lazy<>(computations::incrementAndGet);
+
+        assertThat(lazy.get()).isEqualTo(1);
+        lazy.reset();
+        assertThat(lazy.get()).isEqualTo(2);
+        lazy.set(42);
+        assertThat(lazy.get()).isEqualTo(42);
+    }
+}
@@ -0,0 +1,128 @@
+package org.cuke.inspector;
+
+import io.cucumber.messages.types.GherkinDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParseCacheTest {
+
+    private static final URI URI_OF_FEATURE = URI.create("classpath:cached/rich.feature");
+    private static final String FEATURE = """
+            # language: en
+            @feature-tag
+            Feature: everything the codec has to keep
+              a description
+
+              Background:
+                Given a background step
+
+              @scenario-tag
+              Scenario Outline: an outline with <count> cukes
+                Given I have <count> cukes
+                  \"\"\"json
+                  {"count": <count>}
+                  \"\"\"
+                When I eat them
+                  | name  | amount  |
+                  | cukes | <count> |
+
+                @examples-tag
+                Examples: some numbers
+                  | count |
+                  | 1     |
+                  | 2     |
+
+              Rule: a rule
+                Scenario: inside the rule
+                  * a step in a rule
+            """;
+
+    @TempDir
+    Path cacheDirectory;
+
+    @Test
+    void shouldRestoreEqualDocumentsAndPicklesFromCache() {
+        ParsedFeature parsed = parse(FEATURE);
+
+        ParsedFeature cached = parse(FEATURE);
+
+        // node ids are random per parse, so equal documents can only come from the cache
+        assertThat(cached.gherkinDocument()).isEqualTo(parsed.gherkinDocument());
+        assertThat(cached.pickles()).isEqualTo(parsed.pickles());
+    }
+
+    @Test
+    void shouldParseAgainWhenContentChanges() {
+        ParsedFeature parsed = parse(FEATURE);
+
+        ParsedFeature changed = parse(FEATURE.replace("a rule", "another rule"));
+
+        assertThat(changed.gherkinDocument()).isNotEqualTo(parsed.gherkinDocument());
+        assertThat(changed.pickles().getFirst().getId()).isNotEqualTo(parsed.pickles().getFirst().getId());
+    }
+
+    @Test
+    void shouldParseCoreFeatureOnDemandForCachedDocuments() {
+        parse(FEATURE);
+
+        ParsedFeature cached = parse(FEATURE);
+
+        assertThat(cached.feature().getUri()).isEqualTo(URI_OF_FEATURE);
+        assertThat(cached.feature().getPickles()).hasSameSizeAs(cached.pickles());
+    }
+
+    @Test
+    void shouldReadNewFileOnlyOnceWhileHashingIt() {
+        AtomicInteger opened = new AtomicInteger();
+        FeatureSource source = new FeatureSource() {
+            @Override
+            public URI uri() {
+                return URI_OF_FEATURE;
+            }
+
+            @Override
+            public InputStream open() {
+                opened.incrementAndGet();
+                return new ByteArrayInputStream(FEATURE.getBytes());
+            }
+        };
+
+        ParsedFeature parsed = new CucumberSupplier(List.of(source), null, 1, true, cacheDirectory).getParsedFeatures().getFirst();
+
+        assertThat(opened).hasValue(1);
+        // the hash of the bytes the parser read must match the content, otherwise this would not hit
+        assertThat(parse(FEATURE).gherkinDocument()).isEqualTo(parsed.gherkinDocument());
+    }
+
+    @Test
+    void shouldIgnoreBrokenCacheEntries() throws IOException {
+        GherkinDocument parsed = parse(FEATURE).gherkinDocument();
+        try (Stream<Path> entries = Files.list(cacheDirectory)) {
+            for (Path entry : entries.toList()) {
+                Files.write(entry, new byte[]{1, 2, 3});
+            }
+        }
+
+        GherkinDocument reparsed = parse(FEATURE).gherkinDocument();
+
+        assertThat(reparsed).isNotEqualTo(parsed);
+        assertThat(parse(FEATURE).gherkinDocument()).isEqualTo(reparsed);
+    }
+
+    private ParsedFeature parse(String content) {
+        FeatureSource source = FeatureSource.of(URI_OF_FEATURE, new ByteArrayInputStream(content.getBytes()));
+        return new CucumberSupplier(List.of(source), null, 1, true, cacheDirectory).getParsedFeatures().getFirst();
+    }
+}
@@ -0,0 +1,29 @@
+package org.cuke.inspector;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixTrieTest {
+
+    @Test
+    void shouldFindAllValuesWhoseKeyIsAPrefix() {
+        PrefixTrie<String> trie = new PrefixTrie<>();
+        trie.put("", "empty");
+        trie.put("I have ", "short");
+        trie.put("I have a ", "long");
+        trie.put("I want ", "other");
+
+        assertThat(trie.findPrefixesOf("I have a cat")).containsExactly("empty", "short", "long");
+        assertThat(trie.findPrefixesOf("I")).containsExactly("empty");
+    }
+
+    @Test
+    void shouldKeepAllValuesOfTheSameKey() {
+        PrefixTrie<Integer> trie = new PrefixTrie<>();
+        trie.put("key", 1);
+        trie.put("key", 2);
+
+        assertThat(trie.findPrefixesOf("keys")).containsExactly(1, 2);
+    }
+}
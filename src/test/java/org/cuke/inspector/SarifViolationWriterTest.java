@@ -0,0 +1,150 @@
+package org.cuke.inspector;
+
+import io.cucumber.core.backend.StepDefinition;
+import io.cucumber.core.stepexpression.StepExpression;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SarifViolationWriterTest {
+
+    @Test
+    void shouldWriteCompleteLogWithoutViolations() throws IOException {
+        StringWriter out = new StringWriter();
+        new SarifViolationWriter(out).close();
+
+        assertThat(out.toString())
+                .startsWith("{\"version\":\"2.1.0\"")
+                .contains("\"name\":\"cuke-inspector\"")
+                .contains("\"results\":[]")
+                .endsWith("\"rules\":[]}}}]}\n");
+    }
+
+    @Test
+    void shouldWriteResultsWithAllLocations() throws IOException {
+        StringWriter out = new StringWriter();
+        try (SarifViolationWriter writer = new SarifViolationWriter(out)) {
+            writer.accept(new SimpleViolation("at a scenario", new FeatureLocation("file:///a.feature", "a scenario", 3L, 5L)));
+            writer.accept(new SimpleViolation("in the glue", null));
+            writer.accept(new SimpleViolation("unknown column", new FeatureLocation("file:///b.feature", null, 7L, 0L)));
+        }
+
+        assertThat(out.toString()).contains("""
+                "results":[
+                {"ruleId":"Simple","ruleIndex":0,"level":"error","message":{"text":"at a scenario"},"locations":[{"physicalLocation":{"artifactLocation":{"uri":"file:///a.feature"},"region":{"startLine":3,"startColumn":5}},"logicalLocations":[{"name":"a scenario"}]}]},
+                {"ruleId":"Simple","ruleIndex":0,"level":"error","message":{"text":"in the glue"},"locations":[]},
+                {"ruleId":"Simple","ruleIndex":0,"level":"error","message":{"text":"unknown column"},"locations":[{"physicalLocation":{"artifactLocation":{"uri":"file:///b.feature"},"region":{"startLine":7}}}]}],""");
+    }
+
+    @Test
+    void shouldWriteFurtherLocationsAsRelatedLocations() throws IOException {
+        StringWriter out = new StringWriter();
+        try (SarifViolationWriter writer = new SarifViolationWriter(out)) {
+            writer.accept(new DuplicateViolation("twice", List.of(
+                    new FeatureLocation("file:///a.feature", null, 3L, 0L),
+                    new FeatureLocation("file:///b.feature", null, 5L, 0L),
+                    new FeatureLocation("file:///c.feature", null, 7L, 0L))));
+        }
+
+        assertThat(out.toString()).contains("""
+                "locations":[{"physicalLocation":{"artifactLocation":{"uri":"file:///a.feature"},"region":{"startLine":3}}}],\
+                "relatedLocations":[{"physicalLocation":{"artifactLocation":{"uri":"file:///b.feature"},"region":{"startLine":5}}},\
+                {"physicalLocation":{"artifactLocation":{"uri":"file:///c.feature"},"region":{"startLine":7}}}]}""");
+    }
+
+    @Test
+    void shouldWriteStepDefinitionsOfGlueAsLogicalLocations() throws IOException {
+        StringWriter out = new StringWriter();
+        try (SarifViolationWriter writer = new SarifViolationWriter(out)) {
+            writer.accept(new GlueViolation("twice defined", List.of(
+                    stepDefinition("org.example.Steps.first()", "a step"),
+                    stepDefinition("org.example.Steps.second()", "a step"))));
+        }
+
+        assertThat(out.toString()).contains("""
+                "locations":[{"logicalLocations":[{"fullyQualifiedName":"org.example.Steps.first()","kind":"function"}],"message":{"text":"a step"}}],\
+                "relatedLocations":[{"logicalLocations":[{"fullyQualifiedName":"org.example.Steps.second()","kind":"function"}],"message":{"text":"a step"}}]}""");
+    }
+
+    @Test
+    void shouldWriteOneRuleAndTheLevelOfEachViolationType() throws IOException {
+        StringWriter out = new StringWriter();
+        try (SarifViolationWriter writer = new SarifViolationWriter(out)) {
+            writer.accept(new SimpleViolation("first", null));
+            writer.accept(new MinorViolation("second"));
+            writer.accept(new SimpleViolation("third", null));
+        }
+
+        assertThat(out.toString())
+                .contains("{\"ruleId\":\"Simple\",\"ruleIndex\":0,\"level\":\"error\",\"message\":{\"text\":\"third\"}")
+                .contains("{\"ruleId\":\"Minor\",\"ruleIndex\":1,\"level\":\"note\",\"message\":{\"text\":\"second\"}")
+                .endsWith("""
+                        "rules":[
+                        {"id":"Simple","shortDescription":{"text":"Simple"}},
+                        {"id":"Minor","shortDescription":{"text":"Minor things must be avoided."}}]}}}]}
+                        """);
+    }
+
+    @Test
+    void shouldWriteFeatureFilesRelativeToBaseDirectory() throws IOException {
+        Path base = Path.of("/repo").toAbsolutePath();
+        String inside = base.resolve("features/a.feature").toUri().toString();
+        StringWriter out = new StringWriter();
+        try (SarifViolationWriter writer = new SarifViolationWriter(out, base)) {
+            writer.accept(new SimpleViolation("inside", new FeatureLocation(inside, null, 1L, 1L)));
+            writer.accept(new SimpleViolation("outside", new FeatureLocation("classpath:b.feature", null, 1L, 1L)));
+        }
+
+        assertThat(out.toString())
+                .contains("{\"uri\":\"features/a.feature\",\"uriBaseId\":\"SRCROOT\"}")
+                .contains("{\"uri\":\"classpath:b.feature\"}")
+                .endsWith(",\"originalUriBaseIds\":{\"SRCROOT\":{\"uri\":\"" + base.toUri().toString().replaceAll("/?$", "/") + "\"}}}]}\n");
+    }
+
+    private static CukeInspectorStepDefinition stepDefinition(String location, String pattern) {
+        StepDefinition stepDefinition = Mockito.mock(StepDefinition.class);
+        Mockito.when(stepDefinition.getLocation()).thenReturn(location);
+        Mockito.when(stepDefinition.getPattern()).thenReturn(pattern);
+        return new CukeInspectorStepDefinition(stepDefinition, Mockito.mock(StepExpression.class));
+    }
+
+    private record SimpleViolation(String message, FeatureLocation featureLocation) implements CukeViolation {
+    }
+
+    private record DuplicateViolation(String message, List<FeatureLocation> featureLocations) implements CukeViolation {
+        @Override
+        public FeatureLocation featureLocation() {
+            return featureLocations.getFirst();
+        }
+    }
+
+    private record GlueViolation(String message, List<CukeInspectorStepDefinition> stepDefinitions) implements CukeViolation {
+        @Override
+        public FeatureLocation featureLocation() {
+            return null;
+        }
+    }
+
+    private record MinorViolation(String message) implements CukeViolation {
+        @Override
+        public FeatureLocation featureLocation() {
+            return null;
+        }
+
+        @Override
+        public String ruleDescription() {
+            return "Minor things must be avoided.";
+        }
+
+        @Override
+        public Severity severity() {
+            return Severity.NOTE;
+        }
+    }
+}
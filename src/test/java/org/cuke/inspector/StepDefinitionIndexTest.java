@@ -0,0 +1,63 @@
+package org.cuke.inspector;
+
+import io.cucumber.core.backend.Backend;
+import io.cucumber.core.backend.DefaultObjectFactory;
+import io.cucumber.core.runtime.TimeServiceEventBus;
+import io.cucumber.core.stepexpression.StepTypeRegistry;
+import io.cucumber.java.JavaBackendProviderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Clock;
+import java.util.Locale;
+import java.util.UUID;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StepDefinitionIndexTest {
+    private StepDefinitionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        DefaultObjectFactory lookup = new DefaultObjectFactory();
+        Backend backend = new JavaBackendProviderService().create(lookup, lookup, () -> Thread.currentThread().getContextClassLoader());
+        CukeCachingGlue glue = new CukeCachingGlue(new TimeServiceEventBus(Clock.systemUTC(), UUID::randomUUID));
+        backend.loadGlue(glue, singletonList(URI.create("classpath:org.cuke.inspector.steps.matching.steps")));
+        glue.prepareGlue(new StepTypeRegistry(Locale.getDefault()));
+
+        index = glue.getStepDefinitionIndex();
+    }
+
+    @Test
+    void shouldFindLiteralStepDefinition() {
+        assertThat(index.findMatching("act"))
+                .extracting(CukeInspectorStepDefinition::getPattern)
+                .containsExactly("act");
+    }
+
+    @Test
+    void shouldFindStepDefinitionWithParameters() {
+        assertThat(index.findMatching("arrange with 5"))
+                .extracting(CukeInspectorStepDefinition::getPattern)
+                .containsExactly("arrange with {int}");
+    }
+
+    @Test
+    void shouldOnlyFindStepDefinitionsMatchingTheWholeText() {
+        assertThat(index.findMatching("assert with \"me\""))
+                .extracting(CukeInspectorStepDefinition::getPattern)
+                .containsExactly("assert with {string}");
+        assertThat(index.findMatching("assert \"me\" 5"))
+                .extracting(CukeInspectorStepDefinition::getPattern)
+                .containsExactly("assert {string} {int}");
+    }
+
+    @Test
+    void shouldNotFindUnknownSteps() {
+        assertThat(index.findMatching("arrange with many")).isEmpty();
+        assertThat(index.hasMatching("acting")).isFalse();
+        assertThat(index.hasMatching("arrange with 7")).isTrue();
+    }
+}
@@ -0,0 +1,74 @@
+package org.cuke.inspector;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StepMatchTableTest {
+
+    @Test
+    void shouldMatchEveryDistinctStepText() {
+        CucumberSupplier supplier = new CucumberSupplier(
+                List.of(FeatureSource.of(Paths.get("src/test/resources/nousage/matching_steps.feature"))),
+                URI.create("classpath:org.cuke.inspector.steps.matching.steps"));
+
+        StepMatchTable stepMatchTable = supplier.getStepMatchTable();
+
+        assertThat(stepMatchTable.getStepTexts())
+                .containsExactly("arrange with 5", "act", "assert with \"me\"", "assert \"string with words\" 5");
+        assertThat(stepMatchTable.getStepTexts()).allMatch(stepMatchTable::isImplemented);
+        assertThat(supplier.getGlue().getCukeStepDefinitions()).allMatch(stepMatchTable::isUsed);
+        assertThat(stepMatchTable.getAmbiguousSteps()).isEmpty();
+    }
+
+    @Test
+    void shouldKeepAllStepDefinitionsMatchingAStep() {
+        CucumberSupplier supplier = new CucumberSupplier(
+                List.of(FeatureSource.of(URI.create("classpath:ambiguous.feature"), new ByteArrayInputStream("""
+                        Feature: ambiguous
+                          Scenario: ambiguous
+                            Given an expression
+                            Then act
+                        """.getBytes()))),
+                URI.create("classpath:org.cuke.inspector.steps.duplicated.expressions"));
+
+        StepMatchTable stepMatchTable = supplier.getStepMatchTable();
+
+        assertThat(stepMatchTable.getMatchingStepDefinitions("an expression")).hasSize(3);
+        assertThat(stepMatchTable.getAmbiguousSteps()).containsOnlyKeys("an expression");
+        assertThat(supplier.getGlue().getCukeStepDefinitions())
+                .filteredOn(stepDefinition -> !stepMatchTable.isUsed(stepDefinition))
+                .extracting(CukeInspectorStepDefinition::getPattern)
+                .containsExactly("assert");
+    }
+
+    @Test
+    void shouldForgetStepTextsNoFeatureUsesAnymore() {
+        CucumberSupplier supplier = new CucumberSupplier(List.of(), URI.create("classpath:org.cuke.inspector.steps.matching.steps"));
+        StepMatchTable stepMatchTable = new StepMatchTable(List.of(), supplier.getGlue().getStepDefinitionIndex());
+        stepMatchTable.add(List.of("act", "arrange with 5"));
+        stepMatchTable.add(List.of("act"));
+
+        stepMatchTable.remove(List.of("act", "arrange with 5"));
+
+        assertThat(stepMatchTable.getStepTexts()).containsExactly("act");
+        assertThat(supplier.getGlue().getCukeStepDefinitions())
+                .filteredOn(stepMatchTable::isUsed)
+                .extracting(CukeInspectorStepDefinition::getPattern)
+                .containsExactly("act");
+    }
+
+    @Test
+    void shouldComputeTableOnce() {
+        CucumberSupplier supplier = new CucumberSupplier(
+                List.of(FeatureSource.of(Paths.get("src/test/resources/nousage/matching_steps.feature"))),
+                URI.create("classpath:org.cuke.inspector.steps.matching.steps"));
+
+        assertThat(supplier.getStepMatchTable()).isSameAs(supplier.getStepMatchTable());
+    }
+}
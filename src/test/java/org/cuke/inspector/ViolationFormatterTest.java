@@ -3,6 +3,8 @@ package org.cuke.inspector;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.List;
 
 class ViolationFormatterTest {
@@ -34,4 +36,20 @@ class ViolationFormatterTest {
         Assertions.assertThat(formatted).contains("[1,0]");
     }
 
+    @Test
+    void shouldKeepLayoutOfFormatString() {
+        String formatted = ViolationFormatter.format(cukeViolation);
+
+        Assertions.assertThat(formatted).isEqualTo("%n%s:[%d,%d] %s%n".formatted("file.txt", 1L, 0L, "some message"));
+    }
+
+    @Test
+    void shouldWriteSameAsFormatted() throws IOException {
+        StringWriter writer = new StringWriter();
+
+        ViolationFormatter.formatTo(List.of(cukeViolation, cukeViolation), writer);
+
+        Assertions.assertThat(writer).hasToString(ViolationFormatter.format(List.of(cukeViolation, cukeViolation)));
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package org.cuke.inspector.checker;
+
+import io.cucumber.messages.types.*;
+import org.cuke.inspector.CucumberSupplier;
+import org.cuke.inspector.FeatureSource;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GherkinDocumentWalkerTest {
+
+    private static final String FEATURE = """
+            @feature
+            Feature: walked feature
+              Background: feature background
+                Given a feature background step
+
+              @scenario
+              Scenario Outline: outline
+                When an outline step <value>
+                @examples
+                Examples:
+                  | value |
+                  | 1     |
+
+              @rule
+              Rule: a rule
+                Background: rule background
+                  Given a rule background step
+
+                Scenario: rule scenario
+                  Then a rule step
+            """;
+
+    @Test
+    void shouldVisitAllNodesInDocumentOrder() {
+        RecordingVisitor visitor = new RecordingVisitor();
+
+        GherkinDocumentWalker.walk(gherkinDocument(), List.of(visitor));
+
+        assertThat(visitor.visits).containsExactly(
+                "feature: walked feature",
+                "tag: @feature",
+                "background: feature background",
+                "step: a feature background step",
+                "scenario: outline",
+                "tag: @scenario",
+                "step: an outline step <value>",
+                "tag: @examples",
+                "rule: a rule",
+                "tag: @rule",
+                "background: rule background",
+                "step: a rule background step",
+                "scenario: rule scenario",
+                "step: a rule step");
+    }
+
+    @Test
+    void shouldCallEveryVisitorForEveryNode() {
+        RecordingVisitor first = new RecordingVisitor();
+        RecordingVisitor second = new RecordingVisitor();
+
+        GherkinDocumentWalker.walk(gherkinDocument(), List.of(first, second));
+
+        assertThat(first.visits).isEqualTo(second.visits);
+    }
+
+    private static GherkinDocument gherkinDocument() {
+        FeatureSource source = FeatureSource.of(URI.create("classpath:walked.feature"), new ByteArrayInputStream(FEATURE.getBytes()));
+        return new CucumberSupplier(List.of(source), null).getGherkinDocuments().getFirst();
+    }
+
+    private static class RecordingVisitor implements GherkinDocumentVisitor {
+        private final List<String> visits = new ArrayList<>();
+
+        @Override
+        public void visitFeature(GherkinDocument gherkinDocument, Feature feature) {
+            visits.add("feature: " + feature.getName());
+        }
+
+        @Override
+        public void visitRule(GherkinDocument gherkinDocument, Rule rule) {
+            visits.add("rule: " + rule.getName());
+        }
+
+        @Override
+        public void visitBackground(GherkinDocument gherkinDocument, Background background) {
+            visits.add("background: " + background.getName());
+        }
+
+        @Override
+        public void visitScenario(GherkinDocument gherkinDocument, Scenario scenario) {
+            visits.add("scenario: " + scenario.getName());
+        }
+
+        @Override
+        public void visitStep(GherkinDocument gherkinDocument, Step step) {
+            visits.add("step: " + step.getText());
+        }
+
+        @Override
+        public void visitTag(GherkinDocument gherkinDocument, Tag tag) {
+            visits.add("tag: " + tag.getName());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.cuke.inspector.steps.ambiguous;
+
+import io.cucumber.java.en.Given;
+
+public class Steps {
+
+    @Given("I have {int} cukes")
+    public void anyNumberOfCukes(int count) {
+        // only for testing purposes
+    }
+
+    @Given("I have 5 cukes")
+    public void fiveCukes() {
+        // only for testing purposes
+    }
+
+    @Given("^I have (\\d+) cukes in my (belly|basket)$")
+    public void cukesSomewhere(int count, String place) {
+        // only for testing purposes
+    }
+
+    @Given("I have {int} cukes in my belly")
+    public void cukesInMyBelly(int count) {
+        // only for testing purposes
+    }
+}
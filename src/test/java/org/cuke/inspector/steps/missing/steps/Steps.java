@@ -7,4 +7,9 @@ public class Steps {
     public void thereIsAnImplementation() {
         // only for testing purposes
     }
+
+    @Given("there are {int} implementations")
+    public void thereAreImplementations(int count) {
+        // only for testing purposes
+    }
 }
\ No newline at end of file
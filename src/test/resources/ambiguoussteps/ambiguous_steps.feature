@@ -0,0 +1,9 @@
+Feature: Feature with ambiguous steps
+
+  Scenario: Ambiguous
+    Given I have 5 cukes
+    And I have 3 cukes in my belly
+
+  Scenario: Unambiguous
+    Given I have 3 cukes
+    And I have 3 cukes in my basket
@@ -0,0 +1,10 @@
+Feature: Scenario names with the same hash code
+
+  Scenario: Aa
+    Then something is done
+
+  Scenario: BB
+    Then something else is done
+
+  Scenario: Aa
+    Then something is done again
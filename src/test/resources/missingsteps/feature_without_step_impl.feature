@@ -3,3 +3,6 @@ Feature: No step implementation feature
   Scenario: A scenario
     Given there is an implementation
     Then there is no implementation
+
+  Scenario: A scenario with parameters
+    Given there are 3 implementations